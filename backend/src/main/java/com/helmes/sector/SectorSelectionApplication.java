@@ -2,8 +2,10 @@ package com.helmes.sector;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class SectorSelectionApplication {
 
     public static void main(final String[] args) {
@@ -0,0 +1,56 @@
+package com.helmes.sector.config;
+
+import com.helmes.sector.service.UserSelectionWriteBatcher;
+import com.helmes.sector.web.AdaptiveConcurrencyLimiter;
+import com.helmes.sector.web.AdmissionControlInterceptor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Read and write budgets for {@link AdmissionControlInterceptor}, which {@link WebConfig} puts in front of
+ * the user selection endpoints, configured through {@link AdmissionControlProperties}.
+ *
+ * <p>Every direct write holds a pooled connection for its whole duration, so the shared write budget never
+ * admits more writes than the pool has connections. With write batching, saves share the writer's single
+ * connection instead, and the cap becomes two batches: one committing while the next fills up.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class AdmissionControlConfig {
+
+    @Bean
+    public AdmissionControlInterceptor admissionControlInterceptor(
+        final AdmissionControlProperties properties,
+        final DataSource dataSource,
+        final ObjectProvider<UserSelectionWriteBatcher> writeBatcher,
+        final UserSelectionWriteBatcher.Settings writeBatching,
+        final MeterRegistry meterRegistry
+    ) {
+        final int writeCap = writeBatcher.getIfAvailable() != null
+            ? 2 * writeBatching.maxBatchSize()
+            : poolSize(dataSource);
+        final AdaptiveConcurrencyLimiter.Settings writes = properties.writes().cappedAt(writeCap);
+        if (!writes.equals(properties.writes())) {
+            log.info("Write admission limits capped at {}: {}", writeCap, writes);
+        }
+        return new AdmissionControlInterceptor(properties.reads(), writes, properties.retryAfter(), meterRegistry);
+    }
+
+    private static int poolSize(final DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class)
+                ? dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize()
+                : Integer.MAX_VALUE;
+        } catch (final SQLException ex) {
+            throw new IllegalStateException("Cannot determine the connection pool size", ex);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.helmes.sector.config;
+
+import com.helmes.sector.web.AdaptiveConcurrencyLimiter;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Admission control settings, bound from {@code app.admission}. The defaults live in {@code application.yml}
+ * only.
+ *
+ * @param retryAfter {@code Retry-After} of a rejected request
+ * @param reads      budget of each read endpoint
+ * @param writes     budget shared by all write endpoints
+ */
+@ConfigurationProperties(prefix = "app.admission")
+@Validated
+public record AdmissionControlProperties(
+    @NotNull Duration retryAfter,
+    @NotNull @Valid AdaptiveConcurrencyLimiter.Settings reads,
+    @NotNull @Valid AdaptiveConcurrencyLimiter.Settings writes
+) {
+}
@@ -0,0 +1,34 @@
+package com.helmes.sector.config;
+
+import com.helmes.sector.monitoring.StatementCountObservationHandler;
+import com.helmes.sector.monitoring.StatementCounter;
+import com.helmes.sector.monitoring.StatementCountingDataSourcePostProcessor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.metrics.statement-counts", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class MetricsConfig {
+
+    @Bean
+    public static StatementCountingDataSourcePostProcessor statementCountingDataSourcePostProcessor() {
+        return new StatementCountingDataSourcePostProcessor();
+    }
+
+    @Bean
+    public StatementCountObservationHandler statementCountObservationHandler(final MeterRegistry meterRegistry) {
+        return new StatementCountObservationHandler(meterRegistry);
+    }
+
+    @Bean
+    public MeterBinder statementCountMetrics() {
+        return registry -> FunctionCounter.builder("jdbc.statements", StatementCounter.class, counter -> StatementCounter.total())
+            .description("SQL statements executed on all threads")
+            .baseUnit("statements")
+            .register(registry);
+    }
+}
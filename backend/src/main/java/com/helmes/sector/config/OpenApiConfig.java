@@ -1,13 +1,20 @@
 package com.helmes.sector.config;
 
+import com.helmes.sector.dto.SectorIds;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
+import org.springdoc.core.utils.SpringDocUtils;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class OpenApiConfig {
 
+    static {
+        // Serialized as a plain array of ids by its own Jackson serializer.
+        SpringDocUtils.getConfig().replaceWithClass(SectorIds.class, long[].class);
+    }
+
     @Bean
     public OpenAPI customOpenApi() {
         return new OpenAPI()
@@ -0,0 +1,37 @@
+package com.helmes.sector.config;
+
+import com.helmes.sector.repository.PostgresNotificationListener;
+import com.helmes.sector.session.NearCacheSessionRepositoryPostProcessor;
+import com.helmes.sector.session.SessionChangeChannel;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.session.near-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SessionConfig {
+
+    @Bean
+    public static NearCacheSessionRepositoryPostProcessor nearCacheSessionRepositoryPostProcessor(
+        @Value("${app.session.near-cache.maximum-size:10000}") final long maximumSize,
+        @Value("${app.session.near-cache.flush-interval:1s}") final Duration flushInterval,
+        final ObjectProvider<SessionChangeChannel> changeChannel
+    ) {
+        return new NearCacheSessionRepositoryPostProcessor(maximumSize, flushInterval, changeChannel);
+    }
+
+    // Started by the post-processor once the near cache exists, and received through the notification listener.
+    @Bean
+    @ConditionalOnProperty(
+        prefix = "app.session.near-cache.invalidation", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SessionChangeChannel sessionChangeChannel(
+        final DataSource dataSource,
+        final PostgresNotificationListener notificationListener
+    ) {
+        return new SessionChangeChannel(dataSource, notificationListener);
+    }
+}
@@ -1,12 +1,21 @@
 package com.helmes.sector.config;
 
+import com.helmes.sector.web.AdminTokenInterceptor;
+import com.helmes.sector.web.AdmissionControlInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    private final ObjectProvider<AdmissionControlInterceptor> admissionControl;
+    private final AdminTokenInterceptor adminToken;
+
     @Override
     public void addCorsMappings(final CorsRegistry registry) {
         registry.addMapping("/api/**")
@@ -14,4 +23,17 @@ public class WebConfig implements WebMvcConfigurer {
             .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
             .allowCredentials(true);
     }
+
+    /**
+     * Only the session endpoints go through admission control. The sector endpoints are served from memory,
+     * and bulk transfers are bounded by their own batch sizes. Bulk transfers read or replace every user's
+     * selection and need the admin token.
+     */
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        registry.addInterceptor(adminToken)
+            .addPathPatterns("/api/v1/user-selections/import", "/api/v1/user-selections/export");
+        admissionControl.ifAvailable(interceptor -> registry.addInterceptor(interceptor)
+            .addPathPatterns("/api/v1/user-selections", "/api/v1/user-selections/me"));
+    }
 }
@@ -1,13 +1,31 @@
 package com.helmes.sector.controller;
 
+import com.helmes.sector.dto.FlatSectorTree;
 import com.helmes.sector.dto.SectorNode;
+import com.helmes.sector.dto.SectorSearchHit;
+import com.helmes.sector.dto.SectorSelectionCount;
+import com.helmes.sector.service.SectorSelectionCounter;
 import com.helmes.sector.service.SectorService;
+import com.helmes.sector.web.EncodedBody;
+import com.helmes.sector.web.SectorTreeEncoder;
+import com.helmes.sector.web.SectorTreeFormat;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.Duration;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -16,11 +34,74 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "Sectors", description = "Hierarchical sector data")
 public class SectorController {
 
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(1))
+        .cachePublic()
+        .mustRevalidate();
+
     private final SectorService sectorService;
+    private final SectorTreeEncoder sectorTreeEncoder;
+    private final SectorSelectionCounter selectionCounter;
 
+    /**
+     * Serves pre-encoded bytes in the representation picked from {@code Accept}. The mapping declares no
+     * {@code produces}, so an {@code Accept} that matches no format still gets the nested JSON instead of a 406.
+     * A matching {@code If-None-Match} is answered with 304 by Spring based on the ETag set here.
+     */
     @GetMapping
-    @Operation(summary = "Get all sectors as a hierarchical tree")
-    public List<SectorNode> getAll() {
-        return sectorService.getSectorTree();
+    @Operation(
+        summary = "Get all sectors as a hierarchical tree",
+        description = "Send Accept: " + SectorTreeFormat.FLAT_JSON_VALUE + " or " + SectorTreeFormat.FLAT_CBOR_VALUE
+            + " for the pre-order flattened tree as parallel id, name and depth arrays."
+    )
+    @ApiResponse(
+        responseCode = "200",
+        content = {
+            @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                array = @ArraySchema(schema = @Schema(implementation = SectorNode.class))
+            ),
+            @Content(mediaType = SectorTreeFormat.FLAT_JSON_VALUE, schema = @Schema(implementation = FlatSectorTree.class)),
+            @Content(mediaType = SectorTreeFormat.FLAT_CBOR_VALUE, schema = @Schema(implementation = FlatSectorTree.class))
+        }
+    )
+    public ResponseEntity<byte[]> getAll(
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) final String accept,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding
+    ) {
+        final SectorTreeFormat format = SectorTreeFormat.negotiate(accept);
+        final EncodedBody body = sectorTreeEncoder.encode(format);
+        final boolean gzipped = body.prefersGzip(acceptEncoding);
+
+        final ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(format.mediaType())
+            .cacheControl(CACHE_CONTROL)
+            .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+            .eTag(body.etag(gzipped));
+
+        if (gzipped) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, EncodedBody.GZIP).body(body.gzip());
+        }
+        return response.body(body.identity());
+    }
+
+    @GetMapping("/search")
+    @Operation(
+        summary = "Search sectors by name",
+        description = "Case- and accent-insensitive. Queries under three characters match word starts, longer ones anywhere."
+    )
+    public List<SectorSearchHit> search(
+        @RequestParam("q") final String query,
+        @RequestParam(defaultValue = "20") final int limit
+    ) {
+        return sectorService.search(query, limit);
+    }
+
+    @GetMapping("/selection-counts")
+    @Operation(
+        summary = "Get selection counts for every sector",
+        description = "Served from in-memory counters. rolledUp counts each selection once per sector it picked or picked below."
+    )
+    public List<SectorSelectionCount> getSelectionCounts() {
+        return selectionCounter.snapshot();
     }
 }
@@ -0,0 +1,96 @@
+package com.helmes.sector.controller;
+
+import com.helmes.sector.dto.ImportReport;
+import com.helmes.sector.service.UserSelectionExportService;
+import com.helmes.sector.service.UserSelectionImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/user-selections")
+@RequiredArgsConstructor
+@Tag(name = "User Selection Bulk Transfer", description = "Streaming import and export of user selections")
+public class UserSelectionBulkController {
+
+    static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final UserSelectionImportService importService;
+    private final UserSelectionExportService exportService;
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+        summary = "Import selections from newline-delimited JSON",
+        description = "One {sessionId, name, sectorIds, agreeToTerms} object per line. Existing sessions are replaced. "
+            + "Requires Authorization: Bearer <app.bulk.admin-token>."
+    )
+    public ImportReport importNdjson(
+        final InputStream body,
+        @RequestParam(defaultValue = "${app.import.batch-size:500}") final int batchSize
+    ) throws IOException {
+        return importService.importNdjson(body, batchSize);
+    }
+
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    @Operation(
+        summary = "Import selections from CSV",
+        description = "Header line with sessionId,name,sectorIds,agreeToTerms; sector ids separated by '|'. "
+            + "Requires Authorization: Bearer <app.bulk.admin-token>."
+    )
+    public ImportReport importCsv(
+        final InputStream body,
+        @RequestParam(defaultValue = "${app.import.batch-size:500}") final int batchSize
+    ) throws IOException {
+        return importService.importCsv(body, batchSize);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+        summary = "Export all selections as newline-delimited JSON",
+        description = "Requires Authorization: Bearer <app.bulk.admin-token>. Session ids are not exported."
+    )
+    public void exportNdjson(
+        @Parameter(description = "Only export selections in this sector's subtree")
+        @RequestParam(required = false) final Long sectorId,
+        final HttpServletResponse response
+    ) throws IOException {
+        prepare(response, MediaType.APPLICATION_NDJSON_VALUE, "ndjson");
+        exportService.exportNdjson(response.getOutputStream(), sectorId);
+    }
+
+    @GetMapping(value = "/export", produces = TEXT_CSV_VALUE)
+    @Operation(
+        summary = "Export all selections as CSV",
+        description = "Requires Authorization: Bearer <app.bulk.admin-token>. Session ids are not exported."
+    )
+    public void exportCsv(
+        @Parameter(description = "Only export selections in this sector's subtree")
+        @RequestParam(required = false) final Long sectorId,
+        final HttpServletResponse response
+    ) throws IOException {
+        prepare(response, TEXT_CSV_VALUE, "csv");
+        exportService.exportCsv(response.getOutputStream(), sectorId);
+    }
+
+    private static void prepare(final HttpServletResponse response, final String contentType, final String extension) {
+        response.setContentType(contentType);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+            .filename("user-selections." + extension)
+            .build()
+            .toString());
+    }
+}
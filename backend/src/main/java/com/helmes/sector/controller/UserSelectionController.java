@@ -3,6 +3,7 @@ package com.helmes.sector.controller;
 import com.helmes.sector.dto.UserSelectionRequest;
 import com.helmes.sector.dto.UserSelectionResponse;
 import com.helmes.sector.service.UserSelectionService;
+import com.helmes.sector.service.UserSelectionWriteBatcher;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpSession;
@@ -18,6 +19,10 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+/**
+ * Saves go through {@link UserSelectionWriteBatcher} when write batching is enabled, and straight to
+ * {@link UserSelectionService} otherwise. Updates that require an existing selection are never batched.
+ */
 @RestController
 @RequestMapping("/api/v1/user-selections")
 @RequiredArgsConstructor
@@ -25,6 +30,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class UserSelectionController {
 
     private final UserSelectionService userSelectionService;
+    private final Optional<UserSelectionWriteBatcher> writeBatcher;
 
     @GetMapping("/me")
     @Operation(summary = "Get the current session's saved selection")
@@ -35,17 +41,38 @@ public class UserSelectionController {
     }
 
     @PostMapping
-    @Operation(summary = "Save a new selection for the current session")
+    @Operation(
+        summary = "Save a new selection for the current session",
+        description = "409 if the session already has a different selection. A selection identical to the request is"
+            + " returned as created, so a create that got a 503 can be retried as is, even if it was saved after all."
+    )
     public ResponseEntity<UserSelectionResponse> create(
         @Valid @RequestBody final UserSelectionRequest request,
         final HttpSession session
     ) {
-        final UserSelectionResponse response = userSelectionService.create(session.getId(), request);
+        final UserSelectionResponse response = writeBatcher
+            .map(batcher -> batcher.create(session.getId(), request))
+            .orElseGet(() -> userSelectionService.create(session.getId(), request));
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     @PutMapping("/me")
-    @Operation(summary = "Update the current session's selection")
+    @Operation(
+        summary = "Create or replace the current session's selection",
+        description = "Idempotent. Send If-Match: * to only update an existing selection (409 otherwise)."
+    )
+    public ResponseEntity<UserSelectionResponse> upsert(
+        @Valid @RequestBody final UserSelectionRequest request,
+        final HttpSession session
+    ) {
+        final UserSelectionResponse response = writeBatcher
+            .map(batcher -> batcher.upsert(session.getId(), request))
+            .orElseGet(() -> userSelectionService.upsert(session.getId(), request));
+        return ResponseEntity.ok(response);
+    }
+
+    @PutMapping(value = "/me", headers = "If-Match=*")
+    @Operation(summary = "Update the current session's existing selection")
     public ResponseEntity<UserSelectionResponse> update(
         @Valid @RequestBody final UserSelectionRequest request,
         final HttpSession session
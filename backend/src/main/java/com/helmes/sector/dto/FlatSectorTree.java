@@ -0,0 +1,12 @@
+package com.helmes.sector.dto;
+
+/**
+ * The sector tree in pre-order as parallel arrays: entry {@code i} is the sector with id {@code ids[i]},
+ * name {@code names[i]} at depth {@code depths[i]}, and its parent is the closest earlier entry one level up.
+ */
+public record FlatSectorTree(
+    long[] ids,
+    String[] names,
+    int[] depths
+) {
+}
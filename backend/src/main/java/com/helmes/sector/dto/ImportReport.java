@@ -0,0 +1,31 @@
+package com.helmes.sector.dto;
+
+import java.util.List;
+import lombok.Builder;
+
+/**
+ * Outcome of one import request. Every row read is counted once: as imported (written to the database),
+ * rejected, or superseded by a later row for the same session in the same batch.
+ */
+@Builder
+public record ImportReport(
+    long rowsRead,
+    long rowsImported,
+    long rowsRejected,
+    long rowsSuperseded,
+    long batches,
+    long elapsedMillis,
+    double rowsPerSecond,
+    List<RowError> errors,
+    boolean errorsTruncated
+) {
+
+    /**
+     * A rejected input row. {@code row} is the 1-based line number in the request body.
+     */
+    public record RowError(
+        long row,
+        String message
+    ) {
+    }
+}
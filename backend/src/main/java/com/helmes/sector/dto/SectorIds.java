@@ -0,0 +1,248 @@
+package com.helmes.sector.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.constraints.NotEmpty;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.function.ToLongFunction;
+import java.util.stream.LongStream;
+
+/**
+ * Immutable set of sector ids, held as a sorted {@code long[]} without duplicates.
+ *
+ * <p>On the wire it is a plain JSON array of numbers, like the {@code Set<Long>} it replaces: duplicates are
+ * dropped while reading and the ids are written in ascending order. Reading and writing go straight between
+ * the array and the JSON tokens, so no id is boxed and no hash set is built. Membership is a binary search.
+ *
+ * <p>{@link NotEmptyValidator} lets {@code @NotEmpty} be used on it like on a collection.
+ */
+@JsonSerialize(using = SectorIds.Serializer.class)
+@JsonDeserialize(using = SectorIds.Deserializer.class)
+public final class SectorIds implements Iterable<Long> {
+
+    private static final SectorIds EMPTY = new SectorIds(new long[0]);
+
+    private final long[] ids;
+
+    private SectorIds(final long[] ids) {
+        this.ids = ids;
+    }
+
+    public static SectorIds empty() {
+        return EMPTY;
+    }
+
+    public static SectorIds of(final long... ids) {
+        return ofOwned(ids.clone(), ids.length);
+    }
+
+    /**
+     * @throws NullPointerException if an id is {@code null}
+     */
+    public static SectorIds of(final Collection<Long> ids) {
+        return of(ids, Long::longValue);
+    }
+
+    /**
+     * The ids of a {@code BIGINT[]} column as returned by native queries.
+     *
+     * @throws NullPointerException if an id is {@code null}
+     */
+    public static SectorIds of(final Long[] ids) {
+        final long[] values = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            values[i] = ids[i];
+        }
+        return ofOwned(values, values.length);
+    }
+
+    /**
+     * The ids of {@code items}, for example {@code SectorIds.of(selection.getSectors(), Sector::getId)}.
+     */
+    public static <T> SectorIds of(final Collection<T> items, final ToLongFunction<? super T> id) {
+        final long[] values = new long[items.size()];
+        int size = 0;
+        for (final T item : items) {
+            values[size++] = id.applyAsLong(item);
+        }
+        return ofOwned(values, size);
+    }
+
+    /**
+     * Sorts and deduplicates the first {@code size} values in place and keeps the array if nothing was dropped.
+     */
+    private static SectorIds ofOwned(final long[] values, final int size) {
+        if (size == 0) {
+            return EMPTY;
+        }
+        Arrays.sort(values, 0, size);
+        int distinct = 1;
+        for (int i = 1; i < size; i++) {
+            if (values[i] != values[distinct - 1]) {
+                values[distinct++] = values[i];
+            }
+        }
+        return new SectorIds(distinct == values.length ? values : Arrays.copyOf(values, distinct));
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    /**
+     * The id at {@code index} in ascending order.
+     */
+    public long get(final int index) {
+        return ids[index];
+    }
+
+    /**
+     * The position of {@code id} in ascending order, or a negative number if it is not contained.
+     */
+    public int indexOf(final long id) {
+        return Arrays.binarySearch(ids, id);
+    }
+
+    public boolean contains(final long id) {
+        return indexOf(id) >= 0;
+    }
+
+    public LongStream stream() {
+        return Arrays.stream(ids);
+    }
+
+    public long[] toArray() {
+        return ids.clone();
+    }
+
+    /**
+     * A read-only view for APIs that take boxed ids. Each access boxes the id it returns.
+     */
+    public List<Long> asList() {
+        return new ListView();
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < ids.length;
+            }
+
+            @Override
+            public Long next() {
+                if (next >= ids.length) {
+                    throw new NoSuchElementException();
+                }
+                return ids[next++];
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return this == other || other instanceof SectorIds that && Arrays.equals(ids, that.ids);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(ids);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(ids);
+    }
+
+    private final class ListView extends AbstractList<Long> implements RandomAccess {
+
+        @Override
+        public Long get(final int index) {
+            return ids[index];
+        }
+
+        @Override
+        public int size() {
+            return ids.length;
+        }
+    }
+
+    static final class Serializer extends JsonSerializer<SectorIds> {
+
+        @Override
+        public void serialize(final SectorIds value, final JsonGenerator generator, final SerializerProvider provider)
+            throws IOException {
+            generator.writeArray(value.ids, 0, value.ids.length);
+        }
+    }
+
+    /**
+     * Reads a JSON array of ids into a growing {@code long[]}. Elements that are not plain integers are
+     * coerced like a {@code Long} would be, so strings such as {@code "7"} are still accepted; {@code null}
+     * elements are rejected.
+     */
+    static final class Deserializer extends JsonDeserializer<SectorIds> {
+
+        private static final int INITIAL_CAPACITY = 8;
+
+        @Override
+        public SectorIds deserialize(final JsonParser parser, final DeserializationContext context) throws IOException {
+            if (!parser.isExpectedStartArrayToken()) {
+                return (SectorIds) context.handleUnexpectedToken(SectorIds.class, parser);
+            }
+            long[] values = new long[INITIAL_CAPACITY];
+            int size = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, size * 2);
+                }
+                values[size++] = token == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : coerce(parser, context);
+            }
+            return ofOwned(values, size);
+        }
+
+        private static long coerce(final JsonParser parser, final DeserializationContext context) throws IOException {
+            final Long value = context.readValue(parser, Long.class);
+            if (value == null) {
+                context.reportInputMismatch(SectorIds.class, "Sector IDs must not be null");
+            }
+            return value;
+        }
+    }
+
+    /**
+     * {@code @NotEmpty} for {@link SectorIds}, registered with Hibernate Validator through
+     * {@code META-INF/services/jakarta.validation.ConstraintValidator}.
+     */
+    public static final class NotEmptyValidator implements ConstraintValidator<NotEmpty, SectorIds> {
+
+        @Override
+        public boolean isValid(final SectorIds value, final ConstraintValidatorContext context) {
+            return value != null && !value.isEmpty();
+        }
+    }
+}
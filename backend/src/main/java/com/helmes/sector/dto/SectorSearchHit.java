@@ -0,0 +1,21 @@
+package com.helmes.sector.dto;
+
+import java.util.List;
+import lombok.Builder;
+
+/**
+ * A sector matching a search, with its ancestors from the root down to its parent.
+ */
+@Builder
+public record SectorSearchHit(
+    Long id,
+    String name,
+    List<Ancestor> path
+) {
+
+    public record Ancestor(
+        Long id,
+        String name
+    ) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.helmes.sector.dto;
+
+/**
+ * Number of selections that picked a sector ({@code direct}) and that picked it or anything below it
+ * ({@code rolledUp}, each selection counted once).
+ */
+public record SectorSelectionCount(
+    Long sectorId,
+    long direct,
+    long rolledUp
+) {
+}
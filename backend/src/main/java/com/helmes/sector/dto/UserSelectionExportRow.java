@@ -0,0 +1,20 @@
+package com.helmes.sector.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.Builder;
+
+/**
+ * One exported selection. It is identified by its own id only: the session id is the live Spring Session id
+ * and would let anyone holding the export take the session over.
+ */
+@Builder
+public record UserSelectionExportRow(
+    Long id,
+    String name,
+    List<Long> sectorIds,
+    boolean agreeToTerms,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt
+) {
+}
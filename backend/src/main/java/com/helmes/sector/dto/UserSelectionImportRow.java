@@ -0,0 +1,32 @@
+package com.helmes.sector.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.Set;
+import lombok.Builder;
+
+/**
+ * One selection in a bulk import, keyed by the session it belongs to in the source system. Lengths are checked
+ * against the {@code VARCHAR(255)} columns here, so an oversized row is rejected on its own instead of failing the
+ * whole batch it would be written in.
+ */
+@Builder
+public record UserSelectionImportRow(
+
+    @NotBlank(message = "Session ID is required")
+    @Size(max = 255, message = "Session ID must be at most 255 characters")
+    String sessionId,
+
+    @NotBlank(message = "Name is required")
+    @Size(max = 255, message = "Name must be at most 255 characters")
+    String name,
+
+    @NotEmpty(message = "At least one sector must be selected")
+    Set<Long> sectorIds,
+
+    @AssertTrue(message = "You must agree to the terms")
+    boolean agreeToTerms
+) {
+}
@@ -3,17 +3,18 @@ package com.helmes.sector.dto;
 import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
-import java.util.Set;
+import jakarta.validation.constraints.Size;
 import lombok.Builder;
 
 @Builder
 public record UserSelectionRequest(
 
     @NotBlank(message = "Name is required")
+    @Size(max = 255, message = "Name must be at most 255 characters")
     String name,
 
     @NotEmpty(message = "At least one sector must be selected")
-    Set<Long> sectorIds,
+    SectorIds sectorIds,
 
     @AssertTrue(message = "You must agree to the terms")
     boolean agreeToTerms
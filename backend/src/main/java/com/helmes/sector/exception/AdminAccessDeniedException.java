@@ -0,0 +1,18 @@
+package com.helmes.sector.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * A request to an admin-only endpoint without a valid admin token.
+ */
+@Getter
+public class AdminAccessDeniedException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public AdminAccessDeniedException(final HttpStatus status, final String message) {
+        super(message);
+        this.status = status;
+    }
+}
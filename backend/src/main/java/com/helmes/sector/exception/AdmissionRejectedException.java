@@ -0,0 +1,22 @@
+package com.helmes.sector.exception;
+
+import java.time.Duration;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * A request turned away because the service cannot take it right now: by admission control before it reached
+ * its handler, or by a component that is saturated or shutting down.
+ */
+@Getter
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final Duration retryAfter;
+
+    public AdmissionRejectedException(final HttpStatus status, final String message, final Duration retryAfter) {
+        super(message);
+        this.status = status;
+        this.retryAfter = retryAfter;
+    }
+}
@@ -4,8 +4,10 @@ import java.net.URI;
 import java.util.Map;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -61,4 +63,34 @@ public class GlobalExceptionHandler {
 
         return problem;
     }
+
+    /**
+     * Not logged, since rejections come in bursts under overload; admission control counts them as
+     * {@code app.admission.rejections} instead.
+     */
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<ProblemDetail> handleAdmissionRejected(final AdmissionRejectedException ex) {
+        final ProblemDetail problem = ProblemDetail.forStatusAndDetail(ex.getStatus(), ex.getMessage());
+        problem.setTitle(ex.getStatus().getReasonPhrase());
+        problem.setType(URI.create("about:blank"));
+
+        return ResponseEntity.status(ex.getStatus())
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+            .body(problem);
+    }
+
+    @ExceptionHandler(AdminAccessDeniedException.class)
+    public ResponseEntity<ProblemDetail> handleAdminAccessDenied(final AdminAccessDeniedException ex) {
+        log.warn("Admin access denied: {}", ex.getMessage());
+
+        final ProblemDetail problem = ProblemDetail.forStatusAndDetail(ex.getStatus(), ex.getMessage());
+        problem.setTitle(ex.getStatus().getReasonPhrase());
+        problem.setType(URI.create("about:blank"));
+
+        final ResponseEntity.BodyBuilder response = ResponseEntity.status(ex.getStatus());
+        if (ex.getStatus() == HttpStatus.UNAUTHORIZED) {
+            response.header(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        }
+        return response.body(problem);
+    }
 }
@@ -0,0 +1,60 @@
+package com.helmes.sector.monitoring;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records how many SQL statements ran during each observation, as a {@code <observation>.statements}
+ * distribution summary with the observation's low-cardinality tags.
+ *
+ * <p>That gives {@code http.server.requests.statements} per endpoint and {@code app.service.statements}
+ * per {@code @Observed} service method. Observations that end on another thread than they started on are
+ * skipped, since the count is per thread.
+ */
+public class StatementCountObservationHandler implements ObservationHandler<Observation.Context> {
+
+    private final MeterRegistry meterRegistry;
+
+    public StatementCountObservationHandler(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void onStart(final Observation.Context context) {
+        context.put(Start.class, new Start(Thread.currentThread(), StatementCounter.current()));
+    }
+
+    @Override
+    public void onStop(final Observation.Context context) {
+        final Start start = context.get(Start.class);
+        if (start == null || start.thread() != Thread.currentThread()) {
+            return;
+        }
+
+        final List<Tag> tags = new ArrayList<>();
+        for (final KeyValue keyValue : context.getLowCardinalityKeyValues()) {
+            tags.add(Tag.of(keyValue.getKey(), keyValue.getValue()));
+        }
+        DistributionSummary.builder(context.getName() + ".statements")
+            .description("SQL statements executed")
+            .baseUnit("statements")
+            .tags(Tags.of(tags))
+            .register(meterRegistry)
+            .record(StatementCounter.current() - start.count());
+    }
+
+    @Override
+    public boolean supportsContext(final Observation.Context context) {
+        return true;
+    }
+
+    private record Start(Thread thread, long count) {
+    }
+}
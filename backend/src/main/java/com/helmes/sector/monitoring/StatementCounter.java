@@ -0,0 +1,46 @@
+package com.helmes.sector.monitoring;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running count of the JDBC statements executed through a {@link StatementCountingDataSource}, per thread and
+ * in total.
+ *
+ * <p>The counts only ever grow. Callers read them before and after a unit of work and take the difference,
+ * so nested measurements need no bookkeeping.
+ */
+public final class StatementCounter {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+    private static final LongAdder TOTAL = new LongAdder();
+
+    private StatementCounter() {
+    }
+
+    /**
+     * Statements executed so far by the calling thread.
+     */
+    public static long current() {
+        return COUNT.get()[0];
+    }
+
+    /**
+     * Statements executed so far by all threads.
+     */
+    public static long total() {
+        return TOTAL.sum();
+    }
+
+    /**
+     * Adds statements that another thread ran on the calling thread's behalf to the calling thread's count.
+     * They are already part of {@link #total()}.
+     */
+    public static void attribute(final long statements) {
+        COUNT.get()[0] += statements;
+    }
+
+    static void increment() {
+        COUNT.get()[0]++;
+        TOTAL.increment();
+    }
+}
@@ -0,0 +1,89 @@
+package com.helmes.sector.monitoring;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Counts every statement executed on its connections in {@link StatementCounter}, whether it comes from
+ * Hibernate, Spring Data, {@code JdbcTemplate} or Spring Session.
+ *
+ * <p>An {@code executeBatch} is one round trip and counts once.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+        "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch"
+    );
+
+    public StatementCountingDataSource(final DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        return counting(super.getConnection(username, password));
+    }
+
+    private static Connection counting(final Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+            StatementCountingDataSource.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            new CountingHandler(connection)
+        );
+    }
+
+    /**
+     * Wraps the statements a connection hands out, and counts their executions.
+     */
+    private static final class CountingHandler implements InvocationHandler {
+
+        private final Object target;
+
+        private CountingHandler(final Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            if ("equals".equals(method.getName()) && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(method.getName()) && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+            if (target instanceof Statement && EXECUTE_METHODS.contains(method.getName())) {
+                StatementCounter.increment();
+            }
+
+            final Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (final InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+
+            if (target instanceof Connection && result instanceof Statement
+                && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return Proxy.newProxyInstance(
+                    StatementCountingDataSource.class.getClassLoader(),
+                    new Class<?>[] {method.getReturnType()},
+                    new CountingHandler(result)
+                );
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.helmes.sector.monitoring;
+
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Wraps the auto-configured {@link DataSource} in a {@link StatementCountingDataSource}.
+ *
+ * <p>Decorating the bean in place keeps Boot's pool configuration and Hikari metrics, which find the pool
+ * behind the wrapper.
+ */
+public class StatementCountingDataSourcePostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)) {
+            return new StatementCountingDataSource(dataSource);
+        }
+        return bean;
+    }
+}
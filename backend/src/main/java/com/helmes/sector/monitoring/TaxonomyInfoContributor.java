@@ -0,0 +1,33 @@
+package com.helmes.sector.monitoring;
+
+import com.helmes.sector.service.SectorService;
+import com.helmes.sector.service.SectorTaxonomyListener;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds the taxonomy version this node serves, its size and whether it is listening for changes to
+ * {@code /actuator/info}, so nodes that lag behind stand out.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaxonomyInfoContributor implements InfoContributor {
+
+    private final SectorService sectorService;
+    private final ObjectProvider<SectorTaxonomyListener> listener;
+
+    @Override
+    public void contribute(final Info.Builder builder) {
+        final Map<String, Object> details = new LinkedHashMap<>();
+        details.put("version", sectorService.getVersion());
+        details.put("sectors", sectorService.getTaxonomy().size());
+        final SectorTaxonomyListener current = listener.getIfAvailable();
+        details.put("listening", current != null && current.isListening());
+        builder.withDetail("taxonomy", details);
+    }
+}
@@ -0,0 +1,96 @@
+package com.helmes.sector.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier thread, typically while blocked inside a
+ * {@code synchronized} block of the JDBC driver or Hibernate.
+ *
+ * <p>Listens to the JFR {@code jdk.VirtualThreadPinned} event in-process, logs the offending stack and
+ * records the pinned time in the {@code jvm.threads.virtual.pinned} timer.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+
+    private final Duration threshold;
+    private final Timer pinnedTimer;
+    private final Counter pinnedInJdbcCounter;
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(
+        final MeterRegistry meterRegistry,
+        @Value("${app.virtual-threads.pinning-threshold:20ms}") final Duration threshold
+    ) {
+        this.threshold = threshold;
+        this.pinnedTimer = Timer.builder("jvm.threads.virtual.pinned")
+            .description("Time virtual threads spent pinned to a carrier thread")
+            .register(meterRegistry);
+        this.pinnedInJdbcCounter = Counter.builder("jvm.threads.virtual.pinned.jdbc")
+            .description("Pinning events with the JDBC driver or Hibernate on the stack")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public synchronized void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Virtual thread pinning monitor started (threshold {})", threshold);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return stream != null;
+    }
+
+    private void onPinned(final RecordedEvent event) {
+        pinnedTimer.record(event.getDuration());
+
+        final List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+        final boolean inJdbc = frames.stream()
+            .map(frame -> frame.getMethod().getType().getName())
+            .anyMatch(type -> type.startsWith("org.postgresql.") || type.startsWith("org.hibernate.")
+                || type.startsWith("com.zaxxer.hikari."));
+        if (inJdbc) {
+            pinnedInJdbcCounter.increment();
+        }
+
+        log.warn("Virtual thread pinned for {} ms{}:\n{}",
+            event.getDuration().toMillis(),
+            inJdbc ? " inside JDBC/Hibernate" : "",
+            frames.stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                    + "(line " + frame.getLineNumber() + ")")
+                .collect(Collectors.joining("\n")));
+    }
+}
@@ -0,0 +1,180 @@
+package com.helmes.sector.repository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Receives Postgres notifications for every channel a {@link Handler} is registered for, on one connection of its
+ * own, opened outside the pool so it never holds a pooled one.
+ *
+ * <p>Handlers register while the context starts up; the connection is opened once the context has started, and
+ * only if any handler was registered. Notifications sent while the connection is down are lost, so after every
+ * (re)connect each handler is asked to catch up. While idle the connection is checked every
+ * {@code idle-check-interval}, so a silently dropped connection is replaced as well.
+ */
+@Component
+@Slf4j
+public class PostgresNotificationListener implements SmartLifecycle {
+
+    public static final String APPLICATION_NAME = "notification-listener";
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final Settings settings;
+    private final Map<String, Handler> handlers = new LinkedHashMap<>();
+
+    private volatile boolean running;
+    private volatile boolean listening;
+    private Thread thread;
+
+    public PostgresNotificationListener(final DataSourceProperties dataSourceProperties, final Settings settings) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.settings = settings;
+    }
+
+    /**
+     * Passes the notifications of the given channel to the handler from the next start on.
+     */
+    public synchronized void register(final String channel, final Handler handler) {
+        if (running) {
+            throw new IllegalStateException("Cannot listen on " + channel + " after the listener has started");
+        }
+        if (handlers.putIfAbsent(channel, handler) != null) {
+            throw new IllegalStateException("A handler for " + channel + " is already registered");
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running || handlers.isEmpty()) {
+            return;
+        }
+        running = true;
+        thread = Thread.ofPlatform().name(APPLICATION_NAME).daemon().start(this::run);
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Whether the listener currently holds a connection that receives notifications.
+     */
+    public boolean isListening() {
+        return listening;
+    }
+
+    private void run() {
+        while (running) {
+            try (Connection connection = connect()) {
+                listen(connection);
+            } catch (final SQLException | RuntimeException ex) {
+                if (running) {
+                    log.warn("Notification listener lost its connection, reconnecting in {}: {}",
+                        settings.reconnectDelay(), ex.getMessage());
+                }
+            } finally {
+                listening = false;
+            }
+            sleep(settings.reconnectDelay());
+        }
+    }
+
+    private void listen(final Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (final String channel : handlers.keySet()) {
+                statement.execute("LISTEN " + channel);
+            }
+        }
+        listening = true;
+        for (final Handler handler : handlers.values()) {
+            handler.onListening(connection);
+        }
+
+        final PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        while (running) {
+            final PGNotification[] notifications = pgConnection.getNotifications((int) settings.idleCheckInterval().toMillis());
+            if (notifications == null || notifications.length == 0) {
+                if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    throw new SQLException("Connection is no longer valid");
+                }
+                continue;
+            }
+            final Map<String, List<String>> payloads = new LinkedHashMap<>();
+            for (final PGNotification notification : notifications) {
+                payloads.computeIfAbsent(notification.getName(), channel -> new ArrayList<>()).add(notification.getParameter());
+            }
+            payloads.forEach((channel, channelPayloads) -> handlers.get(channel).onNotifications(channelPayloads));
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        final Properties properties = new Properties();
+        properties.setProperty("user", dataSourceProperties.determineUsername());
+        properties.setProperty("password", dataSourceProperties.determinePassword());
+        properties.setProperty("ApplicationName", APPLICATION_NAME);
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+    }
+
+    private static void sleep(final Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Receives the notifications of one channel, on the listener's thread.
+     */
+    public interface Handler {
+
+        /**
+         * Called after every (re)connect once the channel is listened on, to catch up on notifications that may
+         * have been missed. Queries may run on the given connection but must not change its state.
+         */
+        void onListening(Connection connection) throws SQLException;
+
+        /**
+         * Called with the payloads of the notifications received in one poll, in the order they were sent.
+         */
+        void onNotifications(List<String> payloads);
+    }
+
+    /**
+     * @param idleCheckInterval how long to wait for a notification before checking that the connection is alive
+     * @param reconnectDelay    how long to wait before replacing a lost connection
+     */
+    @ConfigurationProperties("app.notifications")
+    public record Settings(
+        @DefaultValue("30s") Duration idleCheckInterval,
+        @DefaultValue("5s") Duration reconnectDelay
+    ) {
+    }
+}
@@ -5,9 +5,50 @@ import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+/**
+ * The hierarchy query walks the tree from the root rows down in a single statement. Rows come back in
+ * pre-order (every sector directly followed by its subtree), with siblings sorted by name.
+ *
+ * <p>Queries that only need subtree membership join {@code sector_closure} instead, which a trigger on
+ * {@code sectors} keeps complete.
+ */
 public interface SectorRepository extends JpaRepository<Sector, Long> {
 
-    @Query("SELECT s FROM Sector s LEFT JOIN FETCH s.children WHERE s.parent IS NULL ORDER BY s.name")
-    List<Sector> findAllRootsWithChildren();
-}
+    @Query(value = """
+        WITH RECURSIVE tree AS (
+            SELECT s.id, s.name, s.parent_id, 0 AS depth,
+                   ARRAY[CAST(s.name AS TEXT), CAST(s.id AS TEXT)] AS sort_key
+            FROM sectors s
+            WHERE s.parent_id IS NULL
+            UNION ALL
+            SELECT c.id, c.name, c.parent_id, t.depth + 1,
+                   t.sort_key || CAST(c.name AS TEXT) || CAST(c.id AS TEXT)
+            FROM sectors c
+            JOIN tree t ON c.parent_id = t.id
+        )
+        SELECT id, name, parent_id AS "parentId", depth
+        FROM tree
+        ORDER BY sort_key
+        """, nativeQuery = true)
+    List<SectorRow> findHierarchy();
+
+    /**
+     * The current taxonomy version, bumped by a trigger on every change to {@code sectors}.
+     */
+    @Query(value = "SELECT version FROM taxonomy_version", nativeQuery = true)
+    long findTaxonomyVersion();
 
+    /**
+     * Direct and rolled-up selection counts per sector, for sectors with at least one selection. A
+     * selection counts once towards every ancestor of the sectors it picked, however many it picked below.
+     */
+    @Query(value = """
+        SELECT sc.ancestor_id AS "sectorId",
+               COUNT(*) FILTER (WHERE sc.depth = 0) AS direct,
+               COUNT(DISTINCT uss.user_selection_id) AS "rolledUp"
+        FROM user_selection_sectors uss
+        JOIN sector_closure sc ON sc.descendant_id = uss.sector_id
+        GROUP BY sc.ancestor_id
+        """, nativeQuery = true)
+    List<SectorSelectionCountRow> countSelections();
+}
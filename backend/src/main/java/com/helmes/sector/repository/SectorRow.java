@@ -0,0 +1,18 @@
+package com.helmes.sector.repository;
+
+/**
+ * Flat, read-only view of a single {@code sectors} row together with its position in the hierarchy.
+ */
+public interface SectorRow {
+
+    Long getId();
+
+    String getName();
+
+    Long getParentId();
+
+    /**
+     * Distance from the root; {@code 0} for the root rows themselves.
+     */
+    Integer getDepth();
+}
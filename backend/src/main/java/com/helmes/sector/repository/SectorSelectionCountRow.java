@@ -0,0 +1,13 @@
+package com.helmes.sector.repository;
+
+/**
+ * Row of {@link SectorRepository#countSelections()}.
+ */
+public interface SectorSelectionCountRow {
+
+    Long getSectorId();
+
+    Long getDirect();
+
+    Long getRolledUp();
+}
@@ -0,0 +1,18 @@
+package com.helmes.sector.repository;
+
+import com.helmes.sector.dto.SectorIds;
+
+/**
+ * One selection in a {@link UserSelectionBulkRepository#writeAll} batch.
+ *
+ * @param createOnly whether the write is skipped when the session already has a selection, instead of
+ *                   replacing it
+ */
+public record SelectionWrite(
+    String sessionId,
+    String name,
+    boolean agreeToTerms,
+    SectorIds sectorIds,
+    boolean createOnly
+) {
+}
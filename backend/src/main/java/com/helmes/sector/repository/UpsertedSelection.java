@@ -0,0 +1,21 @@
+package com.helmes.sector.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Columns generated by the database for a row written by {@link UserSelectionRepository#upsert} or
+ * {@link UserSelectionBulkRepository#writeAll}.
+ */
+public interface UpsertedSelection {
+
+    Long getId();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    /**
+     * Sector ids the selection had before the statement; empty for a new selection.
+     */
+    Long[] getPreviousSectorIds();
+}
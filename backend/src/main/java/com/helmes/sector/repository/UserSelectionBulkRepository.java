@@ -0,0 +1,203 @@
+package com.helmes.sector.repository;
+
+import com.helmes.sector.dto.UserSelectionExportRow;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Set-based reads and writes for bulk transfers and group commits, bypassing JPA.
+ *
+ * <p>A whole batch, whether from an import or a group commit, is passed as a handful of PostgreSQL arrays and
+ * written by a single statement, so a batch costs one round trip no matter how many rows it holds and independent
+ * of the IDENTITY key.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserSelectionBulkRepository {
+
+    private static final String WRITE_BATCH = """
+        WITH input AS (
+            SELECT *
+            FROM UNNEST(CAST(? AS TEXT[]), CAST(? AS TEXT[]), CAST(? AS BOOLEAN[]), CAST(? AS BOOLEAN[]))
+                AS t(session_id, name, agree_to_terms, create_only)
+        ),
+        requested AS (
+            SELECT *
+            FROM UNNEST(CAST(? AS TEXT[]), CAST(? AS BIGINT[])) AS r(session_id, sector_id)
+        ),
+        previous AS (
+            SELECT us.session_id, ARRAY_AGG(uss.sector_id) AS sector_ids
+            FROM user_selections us
+            JOIN user_selection_sectors uss ON uss.user_selection_id = us.id
+            WHERE us.session_id IN (SELECT session_id FROM input)
+            GROUP BY us.session_id
+        ),
+        created AS (
+            INSERT INTO user_selections (session_id, name, agree_to_terms)
+            SELECT session_id, name, agree_to_terms FROM input WHERE create_only
+            ORDER BY session_id
+            ON CONFLICT (session_id) DO NOTHING
+            RETURNING id, session_id, created_at, updated_at
+        ),
+        upserted AS (
+            INSERT INTO user_selections (session_id, name, agree_to_terms)
+            SELECT session_id, name, agree_to_terms FROM input WHERE NOT create_only
+            ORDER BY session_id
+            ON CONFLICT (session_id) DO UPDATE
+                SET name = EXCLUDED.name,
+                    agree_to_terms = EXCLUDED.agree_to_terms,
+                    updated_at = NOW()
+            RETURNING id, session_id, created_at, updated_at
+        ),
+        written AS (
+            SELECT * FROM created
+            UNION ALL
+            SELECT * FROM upserted
+        ),
+        removed AS (
+            DELETE FROM user_selection_sectors uss
+            USING written w
+            WHERE uss.user_selection_id = w.id
+              AND NOT EXISTS (
+                  SELECT 1 FROM requested r WHERE r.session_id = w.session_id AND r.sector_id = uss.sector_id
+              )
+        ),
+        added AS (
+            INSERT INTO user_selection_sectors (user_selection_id, sector_id)
+            SELECT w.id, r.sector_id
+            FROM written w
+            JOIN requested r ON r.session_id = w.session_id
+            ON CONFLICT DO NOTHING
+        )
+        SELECT w.session_id, w.id, w.created_at, w.updated_at,
+               COALESCE(p.sector_ids, CAST('{}' AS BIGINT[])) AS previous_sector_ids
+        FROM written w
+        LEFT JOIN previous p ON p.session_id = w.session_id
+        """;
+
+    private static final String EXPORT_CHUNK = """
+        SELECT us.id, us.name, us.agree_to_terms, us.created_at, us.updated_at,
+               ARRAY(
+                   SELECT uss.sector_id
+                   FROM user_selection_sectors uss
+                   WHERE uss.user_selection_id = us.id
+                   ORDER BY uss.sector_id
+               ) AS sector_ids
+        FROM user_selections us
+        WHERE us.id > ?
+        """;
+
+    private static final String SUBTREE_FILTER = """
+          AND EXISTS (
+              SELECT 1
+              FROM user_selection_sectors uss
+              JOIN sector_closure sc ON sc.descendant_id = uss.sector_id
+              WHERE uss.user_selection_id = us.id
+                AND sc.ancestor_id = ?
+          )
+        """;
+
+    private static final String EXPORT_PAGE = """
+        ORDER BY us.id
+        LIMIT ?
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Writes a batch of selections in one statement and returns what the database generated for each, by session
+     * id. A {@link SelectionWrite#createOnly() create-only} write whose session already has a selection is left
+     * out of the result. Session ids must be unique within {@code writes}.
+     *
+     * <p>Rows are inserted in session id order, so batches running concurrently on several nodes lock shared
+     * sessions in the same order.
+     */
+    public Map<String, UpsertedSelection> writeAll(final List<SelectionWrite> writes) {
+        final String[] sessionIds = new String[writes.size()];
+        final String[] names = new String[writes.size()];
+        final Boolean[] agreeToTerms = new Boolean[writes.size()];
+        final Boolean[] createOnly = new Boolean[writes.size()];
+        final List<String> pairSessionIds = new ArrayList<>();
+        final List<Long> pairSectorIds = new ArrayList<>();
+
+        for (int i = 0; i < writes.size(); i++) {
+            final SelectionWrite write = writes.get(i);
+            sessionIds[i] = write.sessionId();
+            names[i] = write.name();
+            agreeToTerms[i] = write.agreeToTerms();
+            createOnly[i] = write.createOnly();
+            for (final Long sectorId : write.sectorIds()) {
+                pairSessionIds.add(write.sessionId());
+                pairSectorIds.add(sectorId);
+            }
+        }
+
+        final Map<String, UpsertedSelection> written = HashMap.newHashMap(writes.size());
+        jdbcTemplate.query(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(WRITE_BATCH);
+            statement.setArray(1, connection.createArrayOf("text", sessionIds));
+            statement.setArray(2, connection.createArrayOf("text", names));
+            statement.setArray(3, connection.createArrayOf("bool", agreeToTerms));
+            statement.setArray(4, connection.createArrayOf("bool", createOnly));
+            statement.setArray(5, connection.createArrayOf("text", pairSessionIds.toArray(String[]::new)));
+            statement.setArray(6, connection.createArrayOf("int8", pairSectorIds.toArray(Long[]::new)));
+            return statement;
+        }, (RowCallbackHandler) resultSet -> written.put(resultSet.getString("session_id"), new WrittenSelection(
+            resultSet.getLong("id"),
+            resultSet.getObject("created_at", LocalDateTime.class),
+            resultSet.getObject("updated_at", LocalDateTime.class),
+            (Long[]) resultSet.getArray("previous_sector_ids").getArray()
+        )));
+        return written;
+    }
+
+    /**
+     * Reads up to {@code limit} selections with an id greater than {@code afterId}, in id order.
+     *
+     * <p>With a {@code subtreeRootId}, only selections that picked that sector or any sector below it are
+     * returned, matched through {@code sector_closure}.
+     */
+    public List<UserSelectionExportRow> findAfter(final long afterId, final Long subtreeRootId, final int limit) {
+        return jdbcTemplate.query(connection -> {
+            final String sql = EXPORT_CHUNK + (subtreeRootId != null ? SUBTREE_FILTER : "") + EXPORT_PAGE;
+            final PreparedStatement statement = connection.prepareStatement(sql);
+            int index = 1;
+            statement.setLong(index++, afterId);
+            if (subtreeRootId != null) {
+                statement.setLong(index++, subtreeRootId);
+            }
+            statement.setInt(index, limit);
+            return statement;
+        }, (resultSet, rowNumber) -> mapExportRow(resultSet));
+    }
+
+    private static UserSelectionExportRow mapExportRow(final ResultSet resultSet) throws SQLException {
+        final Long[] sectorIds = (Long[]) resultSet.getArray("sector_ids").getArray();
+        return UserSelectionExportRow.builder()
+            .id(resultSet.getLong("id"))
+            .name(resultSet.getString("name"))
+            .sectorIds(List.of(sectorIds))
+            .agreeToTerms(resultSet.getBoolean("agree_to_terms"))
+            .createdAt(resultSet.getObject("created_at", LocalDateTime.class))
+            .updatedAt(resultSet.getObject("updated_at", LocalDateTime.class))
+            .build();
+    }
+
+    private record WrittenSelection(
+        Long getId,
+        LocalDateTime getCreatedAt,
+        LocalDateTime getUpdatedAt,
+        Long[] getPreviousSectorIds
+    ) implements UpsertedSelection {
+    }
+}
@@ -3,9 +3,72 @@ package com.helmes.sector.repository;
 import com.helmes.sector.entity.UserSelection;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface UserSelectionRepository extends JpaRepository<UserSelection, Long> {
 
     Optional<UserSelection> findBySessionId(String sessionId);
-}
 
+    boolean existsBySessionId(String sessionId);
+
+    /**
+     * The selection of a session with its sector ids aggregated into one column, in a single statement and
+     * without loading any entities.
+     */
+    @Query(value = """
+        SELECT us.id, us.name, us.agree_to_terms AS "agreeToTerms",
+               us.created_at AS "createdAt", us.updated_at AS "updatedAt",
+               ARRAY(SELECT uss.sector_id FROM user_selection_sectors uss WHERE uss.user_selection_id = us.id)
+                   AS "sectorIds"
+        FROM user_selections us
+        WHERE us.session_id = :sessionId
+        """, nativeQuery = true)
+    Optional<UserSelectionRow> findRowBySessionId(@Param("sessionId") String sessionId);
+
+    /**
+     * Inserts or updates the selection of a session and syncs its sector rows in one statement.
+     *
+     * <p>All CTEs see the same snapshot, so {@code removed} only deletes rows that existed before the
+     * statement, {@code added} skips the ones that are kept and {@code previous} still returns the old ones.
+     */
+    @Query(value = """
+        WITH previous AS (
+            SELECT uss.sector_id
+            FROM user_selection_sectors uss
+            JOIN user_selections us ON us.id = uss.user_selection_id
+            WHERE us.session_id = :sessionId
+        ),
+        upserted AS (
+            INSERT INTO user_selections (session_id, name, agree_to_terms)
+            VALUES (:sessionId, :name, :agreeToTerms)
+            ON CONFLICT (session_id) DO UPDATE
+                SET name = EXCLUDED.name,
+                    agree_to_terms = EXCLUDED.agree_to_terms,
+                    updated_at = NOW()
+            RETURNING id, created_at, updated_at
+        ),
+        removed AS (
+            DELETE FROM user_selection_sectors uss
+            USING upserted u
+            WHERE uss.user_selection_id = u.id
+              AND uss.sector_id <> ALL (CAST(:sectorIds AS BIGINT[]))
+        ),
+        added AS (
+            INSERT INTO user_selection_sectors (user_selection_id, sector_id)
+            SELECT u.id, requested.sector_id
+            FROM upserted u
+            CROSS JOIN UNNEST(CAST(:sectorIds AS BIGINT[])) AS requested(sector_id)
+            ON CONFLICT DO NOTHING
+        )
+        SELECT id, created_at AS "createdAt", updated_at AS "updatedAt",
+               ARRAY(SELECT sector_id FROM previous) AS "previousSectorIds"
+        FROM upserted
+        """, nativeQuery = true)
+    UpsertedSelection upsert(
+        @Param("sessionId") String sessionId,
+        @Param("name") String name,
+        @Param("agreeToTerms") boolean agreeToTerms,
+        @Param("sectorIds") long[] sectorIds
+    );
+}
@@ -0,0 +1,24 @@
+package com.helmes.sector.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat, read-only view of a {@code user_selections} row together with the ids of its sectors.
+ */
+public interface UserSelectionRow {
+
+    Long getId();
+
+    String getName();
+
+    boolean isAgreeToTerms();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    /**
+     * Ids of the selected sectors, in no particular order; empty when none are selected.
+     */
+    Long[] getSectorIds();
+}
@@ -0,0 +1,105 @@
+package com.helmes.sector.service;
+
+import com.helmes.sector.dto.UserSelectionImportRow;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Maps CSV lines to import rows using the column positions named in the header line.
+ *
+ * <p>Supports the single-line subset of RFC 4180: comma separated, optionally double-quoted fields with
+ * {@code ""} as an escaped quote. Sector ids are separated by {@code |} within their column.
+ */
+final class CsvImportRowReader {
+
+    static final List<String> COLUMNS = List.of("sessionId", "name", "sectorIds", "agreeToTerms");
+
+    private final int[] positions = new int[COLUMNS.size()];
+
+    CsvImportRowReader(final String headerLine) {
+        if (headerLine == null) {
+            throw new IllegalArgumentException("CSV body is empty; expected a header line.");
+        }
+        final List<String> header = split(headerLine);
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            positions[i] = header.indexOf(COLUMNS.get(i));
+            if (positions[i] < 0) {
+                throw new IllegalArgumentException("CSV header must contain the columns " + String.join(",", COLUMNS) + ".");
+            }
+        }
+    }
+
+    UserSelectionImportRow read(final String line) {
+        final List<String> fields = split(line);
+        return UserSelectionImportRow.builder()
+            .sessionId(field(fields, 0))
+            .name(field(fields, 1))
+            .sectorIds(parseSectorIds(field(fields, 2)))
+            .agreeToTerms(parseBoolean(field(fields, 3)))
+            .build();
+    }
+
+    private String field(final List<String> fields, final int column) {
+        final int position = positions[column];
+        if (position >= fields.size()) {
+            throw new IllegalArgumentException("Missing value for column " + COLUMNS.get(column) + ".");
+        }
+        return fields.get(position);
+    }
+
+    private static Set<Long> parseSectorIds(final String value) {
+        final Set<Long> ids = new LinkedHashSet<>();
+        for (final String part : value.split("\\|")) {
+            if (!part.isBlank()) {
+                try {
+                    ids.add(Long.parseLong(part.strip()));
+                } catch (final NumberFormatException ex) {
+                    throw new IllegalArgumentException("Invalid sector ID: " + part.strip(), ex);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static boolean parseBoolean(final String value) {
+        return switch (value.strip().toLowerCase(Locale.ROOT)) {
+            case "true" -> true;
+            case "false", "" -> false;
+            default -> throw new IllegalArgumentException("Invalid agreeToTerms value: " + value);
+        };
+    }
+
+    static List<String> split(final String line) {
+        final List<String> fields = new ArrayList<>();
+        final StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field.");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
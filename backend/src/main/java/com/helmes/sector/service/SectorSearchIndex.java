@@ -0,0 +1,267 @@
+package com.helmes.sector.service;
+
+import com.helmes.sector.dto.SectorNode;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Case- and accent-insensitive name index over the sectors of one {@link SectorTaxonomy}.
+ *
+ * <p>Queries of three or more characters match anywhere in a name: the posting lists of the query's
+ * trigrams are intersected and the few survivors are checked with {@code contains}. Shorter queries only
+ * match the start of a word, from a separate one- and two-character word prefix index, since almost every
+ * name contains a given letter somewhere.
+ *
+ * <p>Hits are ranked exact name, then name prefix, then word prefix, then any other match, and within a
+ * rank by shorter name and tree order.
+ */
+final class SectorSearchIndex {
+
+    private static final SectorSearchIndex EMPTY = new SectorSearchIndex(List.of());
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int GRAM = 3;
+    private static final int[] NO_POSTINGS = new int[0];
+
+    private final long[] ids;
+    private final String[] names;
+    private final Map<String, int[]> trigrams;
+    private final Map<String, int[]> wordPrefixes;
+
+    private SectorSearchIndex(final List<SectorNode> nodesInOrder) {
+        final int size = nodesInOrder.size();
+        this.ids = new long[size];
+        this.names = new String[size];
+        final Map<String, PostingsBuilder> trigramLists = new HashMap<>();
+        final Map<String, PostingsBuilder> prefixLists = new HashMap<>();
+
+        for (int i = 0; i < size; i++) {
+            final SectorNode node = nodesInOrder.get(i);
+            ids[i] = node.id();
+            names[i] = normalize(node.name());
+            for (final String gram : gramsOf(names[i])) {
+                trigramLists.computeIfAbsent(gram, key -> new PostingsBuilder()).add(i);
+            }
+            for (final String word : names[i].split(" ")) {
+                for (int length = 1; length < GRAM && length <= word.length(); length++) {
+                    prefixLists.computeIfAbsent(word.substring(0, length), key -> new PostingsBuilder()).add(i);
+                }
+            }
+        }
+
+        this.trigrams = freeze(trigramLists);
+        this.wordPrefixes = freeze(prefixLists);
+    }
+
+    static SectorSearchIndex of(final List<SectorNode> nodesInOrder) {
+        return nodesInOrder.isEmpty() ? EMPTY : new SectorSearchIndex(nodesInOrder);
+    }
+
+    /**
+     * Lower case, without diacritics, with every run of non-alphanumerics collapsed to one space.
+     */
+    static String normalize(final String text) {
+        final String decomposed = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(decomposed.toLowerCase(Locale.ROOT)).replaceAll(" ").strip();
+    }
+
+    /**
+     * Ids of the best {@code limit} matches, best first.
+     */
+    List<Long> search(final String query, final int limit) {
+        final String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+
+        final int[] candidates = normalized.length() < GRAM
+            ? wordPrefixes.getOrDefault(normalized, NO_POSTINGS)
+            : intersect(gramsOf(normalized));
+
+        final String wordStart = " " + normalized;
+        final TopK best = new TopK(limit);
+        for (final int candidate : candidates) {
+            final String name = names[candidate];
+            if (name.contains(normalized)) {
+                best.offer(sortKey(rank(name, normalized, wordStart), name.length(), candidate));
+            }
+        }
+
+        final long[] keys = best.sorted();
+        final List<Long> result = new ArrayList<>(keys.length);
+        for (final long key : keys) {
+            result.add(ids[(int) key]);
+        }
+        return result;
+    }
+
+    private int[] intersect(final Set<String> grams) {
+        final List<int[]> postingLists = new ArrayList<>(grams.size());
+        for (final String gram : grams) {
+            final int[] postings = trigrams.get(gram);
+            if (postings == null) {
+                return NO_POSTINGS;
+            }
+            postingLists.add(postings);
+        }
+        postingLists.sort(Comparator.comparingInt(postings -> postings.length));
+
+        int[] result = postingLists.getFirst();
+        for (int i = 1; i < postingLists.size() && result.length > 0; i++) {
+            result = retain(result, postingLists.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Merge intersection of two ascending posting lists.
+     */
+    private static int[] retain(final int[] left, final int[] right) {
+        final int[] result = new int[Math.min(left.length, right.length)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static int rank(final String name, final String query, final String wordStart) {
+        if (name.equals(query)) {
+            return 0;
+        }
+        if (name.startsWith(query)) {
+            return 1;
+        }
+        return name.contains(wordStart) ? 2 : 3;
+    }
+
+    /**
+     * Packs rank, name length and position so that comparing keys orders hits; the position is the low
+     * 32 bits.
+     */
+    private static long sortKey(final int rank, final int nameLength, final int position) {
+        return (long) rank << 56 | (long) Math.min(nameLength, 0xFFFFFF) << 32 | position;
+    }
+
+    private static Set<String> gramsOf(final String text) {
+        final Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static Map<String, int[]> freeze(final Map<String, PostingsBuilder> builders) {
+        final Map<String, int[]> frozen = new HashMap<>(builders.size() * 2);
+        builders.forEach((key, builder) -> frozen.put(key, builder.toArray()));
+        return Map.copyOf(frozen);
+    }
+
+    /**
+     * Growable ascending int list; positions arrive in order, so skipping a repeat of the last one
+     * de-duplicates.
+     */
+    private static final class PostingsBuilder {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(final int position) {
+            if (size > 0 && values[size - 1] == position) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = position;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * Keeps the {@code limit} smallest keys in a primitive max-heap, so ranking costs O(n log limit)
+     * without boxing however many sectors match.
+     */
+    private static final class TopK {
+
+        private final long[] heap;
+        private int size;
+
+        TopK(final int limit) {
+            this.heap = new long[limit];
+        }
+
+        void offer(final long key) {
+            if (size < heap.length) {
+                heap[size] = key;
+                siftUp(size++);
+            } else if (key < heap[0]) {
+                heap[0] = key;
+                siftDown();
+            }
+        }
+
+        long[] sorted() {
+            final long[] keys = Arrays.copyOf(heap, size);
+            Arrays.sort(keys);
+            return keys;
+        }
+
+        private void siftUp(final int start) {
+            int child = start;
+            while (child > 0) {
+                final int parent = (child - 1) / 2;
+                if (heap[parent] >= heap[child]) {
+                    return;
+                }
+                swap(parent, child);
+                child = parent;
+            }
+        }
+
+        private void siftDown() {
+            int parent = 0;
+            while (true) {
+                final int left = 2 * parent + 1;
+                if (left >= size) {
+                    return;
+                }
+                final int right = left + 1;
+                final int larger = right < size && heap[right] > heap[left] ? right : left;
+                if (heap[parent] >= heap[larger]) {
+                    return;
+                }
+                swap(parent, larger);
+                parent = larger;
+            }
+        }
+
+        private void swap(final int i, final int j) {
+            final long tmp = heap[i];
+            heap[i] = heap[j];
+            heap[j] = tmp;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.helmes.sector.service;
+
+import com.helmes.sector.dto.SectorNode;
+import com.helmes.sector.dto.SectorSelectionCount;
+import com.helmes.sector.repository.SectorRepository;
+import com.helmes.sector.repository.SectorSelectionCountRow;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory direct and rolled-up selection counts per sector.
+ *
+ * <p>Writes report the sector ids a selection had before and after the change. The difference, widened to
+ * all ancestors via the taxonomy, is applied to {@link LongAdder}s once the transaction commits, so
+ * concurrent writers do not contend on a shared counter and rolled-back writes are never counted. Reading
+ * the counts never touches the database.
+ *
+ * <p>{@link #reconcile()} periodically replaces all counters with an aggregate over the database. That
+ * repairs drift from writes that bypass the deltas (manual SQL) and from deltas racing a
+ * reconciliation.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SectorSelectionCounter {
+
+    private final SectorService sectorService;
+    private final SectorRepository sectorRepository;
+
+    private final AtomicReference<Counters> counters = new AtomicReference<>(new Counters());
+
+    public void recordChange(final Collection<Long> before, final Collection<Long> after) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(before, after);
+                }
+            });
+        } else {
+            apply(before, after);
+        }
+    }
+
+    void apply(final Collection<Long> before, final Collection<Long> after) {
+        final SectorTaxonomy taxonomy = sectorService.getTaxonomy();
+        final Counters current = counters.get();
+        applyDifference(current.direct, Set.copyOf(before), Set.copyOf(after));
+        applyDifference(current.rolledUp, taxonomy.withAncestors(before), taxonomy.withAncestors(after));
+    }
+
+    private static void applyDifference(final Map<Long, LongAdder> counts, final Set<Long> before, final Set<Long> after) {
+        for (final Long id : after) {
+            if (!before.contains(id)) {
+                counts.computeIfAbsent(id, key -> new LongAdder()).increment();
+            }
+        }
+        for (final Long id : before) {
+            if (!after.contains(id)) {
+                counts.computeIfAbsent(id, key -> new LongAdder()).decrement();
+            }
+        }
+    }
+
+    @Scheduled(
+        initialDelayString = "${app.selection-counts.initial-delay:0s}",
+        fixedDelayString = "${app.selection-counts.reconcile-interval:5m}"
+    )
+    public void reconcile() {
+        final Counters reconciled = new Counters();
+        final List<SectorSelectionCountRow> rows = sectorRepository.countSelections();
+        for (final SectorSelectionCountRow row : rows) {
+            reconciled.direct.computeIfAbsent(row.getSectorId(), key -> new LongAdder()).add(row.getDirect());
+            reconciled.rolledUp.computeIfAbsent(row.getSectorId(), key -> new LongAdder()).add(row.getRolledUp());
+        }
+        counters.set(reconciled);
+        log.debug("Reconciled selection counts for {} sectors", rows.size());
+    }
+
+    /**
+     * Counts for every sector of the taxonomy, in tree pre-order.
+     */
+    public List<SectorSelectionCount> snapshot() {
+        final SectorTaxonomy taxonomy = sectorService.getTaxonomy();
+        final Counters current = counters.get();
+        final List<SectorSelectionCount> result = new ArrayList<>(taxonomy.size());
+        final Deque<SectorNode> stack = new ArrayDeque<>(taxonomy.roots());
+        while (!stack.isEmpty()) {
+            final SectorNode node = stack.pop();
+            result.add(current.countOf(node.id()));
+            node.children().reversed().forEach(stack::push);
+        }
+        return result;
+    }
+
+    public SectorSelectionCount countOf(final long sectorId) {
+        return counters.get().countOf(sectorId);
+    }
+
+    private static final class Counters {
+
+        private final Map<Long, LongAdder> direct = new ConcurrentHashMap<>();
+        private final Map<Long, LongAdder> rolledUp = new ConcurrentHashMap<>();
+
+        SectorSelectionCount countOf(final long sectorId) {
+            return new SectorSelectionCount(sectorId, sum(direct, sectorId), sum(rolledUp, sectorId));
+        }
+
+        private static long sum(final Map<Long, LongAdder> counts, final long sectorId) {
+            final LongAdder adder = counts.get(sectorId);
+            return adder == null ? 0 : adder.sum();
+        }
+    }
+}
@@ -1,35 +1,86 @@
 package com.helmes.sector.service;
 
 import com.helmes.sector.dto.SectorNode;
-import com.helmes.sector.entity.Sector;
+import com.helmes.sector.dto.SectorSearchHit;
 import com.helmes.sector.repository.SectorRepository;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.annotation.PostConstruct;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Serves the sector hierarchy from an in-memory {@link SectorTaxonomy} snapshot.
+ *
+ * <p>Reads are a single volatile load and never reach the database. {@link #reload()} builds a
+ * complete new snapshot before swapping it in, so readers always see either the old or the new tree.
+ * Each snapshot remembers the taxonomy version it was loaded at; {@link SectorTaxonomyListener} compares
+ * that with the versions other nodes announce.
+ */
 @Service
 @RequiredArgsConstructor
-@Transactional(readOnly = true)
+@Slf4j
 public class SectorService {
 
+    private static final int MAX_SEARCH_LIMIT = 100;
+
     private final SectorRepository sectorRepository;
-    
+
+    private final AtomicReference<SectorTaxonomy> taxonomy = new AtomicReference<>();
+    private volatile long version;
+
+    @PostConstruct
+    void init() {
+        reload();
+    }
+
     public List<SectorNode> getSectorTree() {
-        return sectorRepository.findAllRootsWithChildren().stream()
-            .map(this::toNode)
-            .toList();
+        return getTaxonomy().roots();
+    }
+
+    @Observed(name = "app.service")
+    public List<SectorSearchHit> search(final String query, final int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SEARCH_LIMIT + ".");
+        }
+        return getTaxonomy().search(query, limit);
+    }
+
+    public SectorTaxonomy getTaxonomy() {
+        final SectorTaxonomy current = taxonomy.get();
+        return current != null ? current : reload();
+    }
+
+    /**
+     * The taxonomy version the current snapshot was loaded at.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    @Observed(name = "app.service")
+    public synchronized SectorTaxonomy reload() {
+        // Read before the rows: a change committed in between is already loaded and only causes one more reload.
+        final long loadedVersion = sectorRepository.findTaxonomyVersion();
+        final SectorTaxonomy loaded = SectorTaxonomy.of(sectorRepository.findHierarchy());
+        taxonomy.set(loaded);
+        version = loadedVersion;
+        log.debug("Loaded sector taxonomy version {} with {} sectors", loadedVersion, loaded.size());
+        return loaded;
     }
 
-    private SectorNode toNode(final Sector sector) {
-        return SectorNode.builder()
-            .id(sector.getId())
-            .name(sector.getName())
-            .children(
-                sector.getChildren().stream()
-                    .map(this::toNode)
-                    .toList()
-            )
-            .build();
+    /**
+     * Reloads unless the current snapshot was loaded at {@code latestVersion} or later.
+     *
+     * @return whether the snapshot was reloaded
+     */
+    public boolean reloadIfOlderThan(final long latestVersion) {
+        if (latestVersion > version) {
+            reload();
+            return true;
+        }
+        return false;
     }
 }
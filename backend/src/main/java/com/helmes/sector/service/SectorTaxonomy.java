@@ -0,0 +1,182 @@
+package com.helmes.sector.service;
+
+import com.helmes.sector.dto.SectorIds;
+import com.helmes.sector.dto.SectorNode;
+import com.helmes.sector.dto.SectorSearchHit;
+import com.helmes.sector.repository.SectorRow;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the sector hierarchy.
+ *
+ * <p>Built once from the flat {@code sectors} rows and then shared between request threads
+ * without any locking. A new taxonomy is built and swapped in as a whole on reload.
+ */
+public final class SectorTaxonomy {
+
+    private static final SectorTaxonomy EMPTY = new SectorTaxonomy(List.of(), Map.of(), Map.of());
+
+    private final List<SectorNode> roots;
+    private final Map<Long, SectorNode> nodesById;
+    private final Map<Long, Long> parentIds;
+    private final long[] sortedIds;
+    private final SectorSearchIndex searchIndex;
+
+    private SectorTaxonomy(
+        final List<SectorNode> roots,
+        final Map<Long, SectorNode> nodesById,
+        final Map<Long, Long> parentIds
+    ) {
+        this.roots = roots;
+        this.nodesById = nodesById;
+        this.parentIds = parentIds;
+        this.sortedIds = nodesById.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        this.searchIndex = SectorSearchIndex.of(preOrder(roots));
+    }
+
+    private static List<SectorNode> preOrder(final List<SectorNode> roots) {
+        final List<SectorNode> nodes = new ArrayList<>();
+        final Deque<SectorNode> stack = new ArrayDeque<>(roots);
+        while (!stack.isEmpty()) {
+            final SectorNode node = stack.pop();
+            nodes.add(node);
+            node.children().reversed().forEach(stack::push);
+        }
+        return nodes;
+    }
+
+    public static SectorTaxonomy empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds a taxonomy from rows in pre-order, as returned by {@code SectorRepository.findHierarchy()}.
+     *
+     * <p>Walking the rows backwards means every node's subtree has already been built when the node
+     * itself is reached, so the immutable tree is assembled in one linear pass.
+     */
+    public static SectorTaxonomy of(final List<? extends SectorRow> rows) {
+        if (rows.isEmpty()) {
+            return EMPTY;
+        }
+
+        final Map<Long, List<SectorNode>> pendingChildren = new HashMap<>();
+        final Map<Long, SectorNode> nodesById = new HashMap<>(rows.size() * 2);
+        final Map<Long, Long> parentIds = new HashMap<>(rows.size() * 2);
+        final List<SectorNode> roots = new ArrayList<>();
+
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            final SectorRow row = rows.get(i);
+            final SectorNode node = SectorNode.builder()
+                .id(row.getId())
+                .name(row.getName())
+                .children(reversed(pendingChildren.remove(row.getId())))
+                .build();
+            nodesById.put(node.id(), node);
+
+            if (row.getDepth() == 0) {
+                roots.add(node);
+            } else {
+                parentIds.put(node.id(), row.getParentId());
+                pendingChildren.computeIfAbsent(row.getParentId(), key -> new ArrayList<>()).add(node);
+            }
+        }
+
+        if (!pendingChildren.isEmpty()) {
+            throw new IllegalStateException("Sector rows are not in pre-order: orphans under " + pendingChildren.keySet());
+        }
+
+        return new SectorTaxonomy(reversed(roots), Map.copyOf(nodesById), Map.copyOf(parentIds));
+    }
+
+    private static List<SectorNode> reversed(final List<SectorNode> nodes) {
+        return nodes == null ? List.of() : List.copyOf(nodes.reversed());
+    }
+
+    public List<SectorNode> roots() {
+        return roots;
+    }
+
+    public Optional<SectorNode> find(final long id) {
+        return Optional.ofNullable(nodesById.get(id));
+    }
+
+    public Optional<Long> parentOf(final long id) {
+        return Optional.ofNullable(parentIds.get(id));
+    }
+
+    /**
+     * The given sectors plus all of their ancestors. Unknown ids are kept as they are.
+     */
+    public Set<Long> withAncestors(final Collection<Long> ids) {
+        final Set<Long> result = new HashSet<>();
+        for (final Long id : ids) {
+            Long current = id;
+            while (current != null && result.add(current)) {
+                current = parentIds.get(current);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sectors whose name contains {@code query}, ignoring case and accents, best match first. See
+     * {@link SectorSearchIndex} for matching and ranking.
+     */
+    public List<SectorSearchHit> search(final String query, final int limit) {
+        return searchIndex.search(query, limit).stream()
+            .map(id -> SectorSearchHit.builder()
+                .id(id)
+                .name(nodesById.get(id).name())
+                .path(ancestorsOf(id))
+                .build())
+            .toList();
+    }
+
+    private List<SectorSearchHit.Ancestor> ancestorsOf(final long id) {
+        final List<SectorSearchHit.Ancestor> path = new ArrayList<>();
+        for (Long current = parentIds.get(id); current != null; current = parentIds.get(current)) {
+            path.add(new SectorSearchHit.Ancestor(current, nodesById.get(current).name()));
+        }
+        return List.copyOf(path.reversed());
+    }
+
+    /**
+     * Membership check against a sorted primitive array, so validating ids neither boxes nor hashes.
+     */
+    public boolean contains(final long id) {
+        return Arrays.binarySearch(sortedIds, id) >= 0;
+    }
+
+    public boolean containsAll(final SectorIds ids) {
+        for (int i = 0; i < ids.size(); i++) {
+            if (!contains(ids.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean containsAll(final Collection<Long> ids) {
+        for (final Long id : ids) {
+            if (id == null || !contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return nodesById.size();
+    }
+}
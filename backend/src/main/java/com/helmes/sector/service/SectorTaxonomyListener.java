@@ -0,0 +1,84 @@
+package com.helmes.sector.service;
+
+import com.helmes.sector.repository.PostgresNotificationListener;
+import jakarta.annotation.PostConstruct;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reloads the {@link SectorService} snapshot whenever the {@code sectors} table changes, on whichever node or
+ * migration changed it.
+ *
+ * <p>A trigger bumps {@code taxonomy_version} on every change and notifies the {@value #CHANNEL} channel
+ * with the new version once the transaction commits. The {@link PostgresNotificationListener} passes those
+ * notifications on, and the snapshot is reloaded on a background thread when a version is newer than the loaded
+ * one. Readers keep the old snapshot until the new one is swapped in. After every (re)connect the stored version
+ * is compared with the loaded one, to catch up on notifications missed while the connection was down.
+ *
+ * <p>A reload can move sectors to other parents, which changes every rolled-up count above them, so the
+ * {@link SectorSelectionCounter} is reconciled after each reload instead of waiting for its next scheduled run.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.taxonomy.listener", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class SectorTaxonomyListener implements PostgresNotificationListener.Handler {
+
+    static final String CHANNEL = "taxonomy_changed";
+
+    private final SectorService sectorService;
+    private final SectorSelectionCounter selectionCounter;
+    private final PostgresNotificationListener notificationListener;
+
+    public SectorTaxonomyListener(
+        final SectorService sectorService,
+        final SectorSelectionCounter selectionCounter,
+        final PostgresNotificationListener notificationListener
+    ) {
+        this.sectorService = sectorService;
+        this.selectionCounter = selectionCounter;
+        this.notificationListener = notificationListener;
+    }
+
+    @PostConstruct
+    void register() {
+        notificationListener.register(CHANNEL, this);
+    }
+
+    /**
+     * Whether taxonomy changes are currently being received.
+     */
+    public boolean isListening() {
+        return notificationListener.isListening();
+    }
+
+    @Override
+    public void onListening(final Connection connection) throws SQLException {
+        reloadIfOlderThan(storedVersion(connection));
+    }
+
+    @Override
+    public void onNotifications(final List<String> payloads) {
+        final long latest = payloads.stream().mapToLong(Long::parseLong).max().orElse(0);
+        log.debug("Taxonomy version {} announced, loaded version is {}", latest, sectorService.getVersion());
+        reloadIfOlderThan(latest);
+    }
+
+    private void reloadIfOlderThan(final long latestVersion) {
+        if (sectorService.reloadIfOlderThan(latestVersion)) {
+            selectionCounter.reconcile();
+        }
+    }
+
+    private static long storedVersion(final Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT version FROM taxonomy_version")) {
+            return result.next() ? result.getLong(1) : 0;
+        }
+    }
+}
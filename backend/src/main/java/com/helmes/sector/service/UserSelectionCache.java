@@ -0,0 +1,81 @@
+package com.helmes.sector.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.helmes.sector.dto.UserSelectionResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded cache of the selection responses by session id, including the absence of a selection.
+ *
+ * <p>Entries expire a fixed time after they were written, which bounds how long a node can serve a selection
+ * that another node has since changed. Writes on this node replace the entry as soon as their transaction
+ * commits; the entry is dropped when the write starts, so readers in between go to the database.
+ */
+@Component
+public class UserSelectionCache {
+
+    static final String NAME = "user-selections";
+
+    private final Cache<String, Optional<UserSelectionResponse>> cache;
+
+    public UserSelectionCache(
+        @Value("${app.selection-cache.maximum-size:10000}") final long maximumSize,
+        @Value("${app.selection-cache.time-to-live:30s}") final Duration timeToLive,
+        final MeterRegistry meterRegistry
+    ) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(timeToLive)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    /**
+     * The cached response for {@code sessionId}, loading and caching it on a miss.
+     */
+    Optional<UserSelectionResponse> get(
+        final String sessionId,
+        final Function<String, Optional<UserSelectionResponse>> loader
+    ) {
+        return cache.get(sessionId, loader);
+    }
+
+    /**
+     * Caches {@code response} once the current transaction commits, or right away outside of one.
+     */
+    void put(final String sessionId, final UserSelectionResponse response) {
+        cache.invalidate(sessionId);
+        afterCommit(() -> cache.put(sessionId, Optional.of(response)));
+    }
+
+    /**
+     * Drops the entries of selections that were written without going through {@link #put}.
+     */
+    void invalidateAll(final Collection<String> sessionIds) {
+        cache.invalidateAll(sessionIds);
+    }
+
+    private static void afterCommit(final Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
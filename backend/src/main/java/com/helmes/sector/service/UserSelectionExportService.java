@@ -0,0 +1,141 @@
+package com.helmes.sector.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helmes.sector.dto.UserSelectionExportRow;
+import com.helmes.sector.repository.UserSelectionBulkRepository;
+import io.micrometer.observation.annotation.Observed;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Streams every saved selection to an output stream as NDJSON or CSV.
+ *
+ * <p>The table is walked in keyset-paginated chunks of {@code app.export.chunk-size} rows. Each chunk is read
+ * completely by one query in its own short read-only transaction and only written out after that transaction has
+ * ended, so a slow client never keeps a transaction or connection open. Heap use is therefore bounded by the chunk
+ * size, not by a cursor, and no snapshot spans the whole export, so a long download does not hold back vacuum.
+ * Rows written concurrently may or may not be included.
+ */
+@Service
+@Observed(name = "app.service")
+@Slf4j
+public class UserSelectionExportService {
+
+    static final String CSV_HEADER = "id,name,sectorIds,agreeToTerms,createdAt,updatedAt";
+
+    private final UserSelectionBulkRepository bulkRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate chunkTransaction;
+    private final int chunkSize;
+
+    public UserSelectionExportService(
+        final UserSelectionBulkRepository bulkRepository,
+        final ObjectMapper objectMapper,
+        final PlatformTransactionManager transactionManager,
+        @Value("${app.export.chunk-size:5000}") final int chunkSize
+    ) {
+        this.bulkRepository = bulkRepository;
+        this.objectMapper = objectMapper;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setReadOnly(true);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Writes all selections, or with a {@code sectorId} only those in that sector's subtree.
+     */
+    public long exportNdjson(final OutputStream out, final Long sectorId) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            return export(sectorId, row -> {
+                try {
+                    generator.writeObject(row);
+                    generator.writeRaw('\n');
+                } catch (final IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }, generator::flush);
+        }
+    }
+
+    public long exportCsv(final OutputStream out, final Long sectorId) throws IOException {
+        final Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        final long rows = export(sectorId, row -> {
+            try {
+                writer.write(toCsvLine(row));
+            } catch (final IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }, writer::flush);
+        writer.flush();
+        return rows;
+    }
+
+    private long export(
+        final Long sectorId,
+        final Consumer<UserSelectionExportRow> sink,
+        final Flushable afterChunk
+    ) throws IOException {
+        final long startedAt = System.nanoTime();
+        long lastId = 0;
+        long total = 0;
+        List<UserSelectionExportRow> chunk;
+        try {
+            do {
+                final long afterId = lastId;
+                chunk = chunkTransaction.execute(status ->
+                    bulkRepository.findAfter(afterId, sectorId, chunkSize));
+                chunk.forEach(sink);
+                afterChunk.flush();
+                if (!chunk.isEmpty()) {
+                    lastId = chunk.getLast().id();
+                }
+                total += chunk.size();
+            } while (chunk.size() == chunkSize);
+        } catch (final UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        log.info("Exported {} user selections in {} ms", total, (System.nanoTime() - startedAt) / 1_000_000);
+        return total;
+    }
+
+    static String toCsvLine(final UserSelectionExportRow row) {
+        return String.join(",",
+            String.valueOf(row.id()),
+            quote(row.name()),
+            row.sectorIds().stream().map(String::valueOf).collect(Collectors.joining("|")),
+            String.valueOf(row.agreeToTerms()),
+            String.valueOf(row.createdAt()),
+            String.valueOf(row.updatedAt())
+        ) + "\n";
+    }
+
+    private static String quote(final String value) {
+        final String text = Objects.toString(value, "");
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    @FunctionalInterface
+    private interface Flushable {
+        void flush() throws IOException;
+    }
+}
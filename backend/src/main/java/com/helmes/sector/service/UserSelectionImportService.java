@@ -0,0 +1,227 @@
+package com.helmes.sector.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helmes.sector.dto.ImportReport;
+import com.helmes.sector.dto.SectorIds;
+import com.helmes.sector.dto.UserSelectionImportRow;
+import com.helmes.sector.repository.SelectionWrite;
+import com.helmes.sector.repository.UpsertedSelection;
+import com.helmes.sector.repository.UserSelectionBulkRepository;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Streams selections from an NDJSON or CSV body into the database in fixed-size batches.
+ *
+ * <p>Memory use is bounded by the batch size: rows are parsed line by line, validated against the in-memory
+ * taxonomy and written by {@link UserSelectionBulkRepository#writeAll}, the statement group commits use, once a
+ * batch is full. Each batch commits on its own, so a failing batch rejects only its own rows, and the selection
+ * counts are adjusted by what each row replaced. Within a batch the last row for a session id wins.
+ */
+@Service
+@Observed(name = "app.service")
+@Slf4j
+public class UserSelectionImportService {
+
+    private final UserSelectionBulkRepository bulkRepository;
+    private final SectorService sectorService;
+    private final SectorSelectionCounter selectionCounter;
+    private final UserSelectionCache selectionCache;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int maxBatchSize;
+    private final int maxReportedErrors;
+
+    public UserSelectionImportService(
+        final UserSelectionBulkRepository bulkRepository,
+        final SectorService sectorService,
+        final SectorSelectionCounter selectionCounter,
+        final UserSelectionCache selectionCache,
+        final ObjectMapper objectMapper,
+        final Validator validator,
+        @Value("${app.import.max-batch-size:5000}") final int maxBatchSize,
+        @Value("${app.import.max-reported-errors:100}") final int maxReportedErrors
+    ) {
+        this.bulkRepository = bulkRepository;
+        this.sectorService = sectorService;
+        this.selectionCounter = selectionCounter;
+        this.selectionCache = selectionCache;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.maxBatchSize = maxBatchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public ImportReport importNdjson(final InputStream body, final int batchSize) throws IOException {
+        try (BufferedReader reader = open(body)) {
+            return importLines(reader, batchSize, line -> {
+                try {
+                    return objectMapper.readValue(line, UserSelectionImportRow.class);
+                } catch (final JsonProcessingException ex) {
+                    throw new IllegalArgumentException("Malformed JSON: " + ex.getOriginalMessage(), ex);
+                }
+            }, 0);
+        }
+    }
+
+    public ImportReport importCsv(final InputStream body, final int batchSize) throws IOException {
+        try (BufferedReader reader = open(body)) {
+            final CsvImportRowReader rowReader = new CsvImportRowReader(reader.readLine());
+            return importLines(reader, batchSize, rowReader::read, 1);
+        }
+    }
+
+    private ImportReport importLines(
+        final BufferedReader reader,
+        final int batchSize,
+        final RowParser parser,
+        final long linesBefore
+    ) throws IOException {
+        if (batchSize < 1 || batchSize > maxBatchSize) {
+            throw new IllegalArgumentException("Batch size must be between 1 and " + maxBatchSize + ".");
+        }
+        final ImportRun run = new ImportRun(batchSize);
+        long lineNumber = linesBefore;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            run.rowsRead++;
+            try {
+                run.add(lineNumber, validate(parser.parse(line)));
+            } catch (final IllegalArgumentException ex) {
+                run.reject(lineNumber, ex.getMessage());
+            }
+        }
+        run.flush();
+        final ImportReport report = run.report();
+        log.info("Imported {} of {} user selections in {} batches ({} rows/s)",
+            report.rowsImported(), report.rowsRead(), report.batches(), Math.round(report.rowsPerSecond()));
+        return report;
+    }
+
+    private UserSelectionImportRow validate(final UserSelectionImportRow row) {
+        final Set<ConstraintViolation<UserSelectionImportRow>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.joining("; ")));
+        }
+        if (!sectorService.getTaxonomy().containsAll(row.sectorIds())) {
+            throw new IllegalArgumentException("One or more sector IDs are invalid.");
+        }
+        return row;
+    }
+
+    private static BufferedReader open(final InputStream body) {
+        return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+
+    @FunctionalInterface
+    private interface RowParser {
+        UserSelectionImportRow parse(String line);
+    }
+
+    /**
+     * Counters and the pending batch for one import request.
+     */
+    private final class ImportRun {
+
+        private final int batchSize;
+        private final long startedAt = System.nanoTime();
+        private final Map<String, PendingRow> pending = new LinkedHashMap<>();
+        private final List<ImportReport.RowError> errors = new ArrayList<>();
+        private long rowsRead;
+        private long rowsImported;
+        private long rowsRejected;
+        private long rowsSuperseded;
+        private long batches;
+        private boolean errorsTruncated;
+
+        ImportRun(final int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        void add(final long lineNumber, final UserSelectionImportRow row) {
+            final PendingRow replaced = pending.put(row.sessionId(), new PendingRow(lineNumber, row));
+            if (replaced != null) {
+                rowsSuperseded++;
+            }
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                final Map<String, UpsertedSelection> written = bulkRepository.writeAll(
+                    pending.values().stream().map(PendingRow::write).toList());
+                written.forEach((sessionId, saved) -> selectionCounter.recordChange(
+                    List.of(saved.getPreviousSectorIds()), pending.get(sessionId).row().sectorIds()));
+                selectionCache.invalidateAll(pending.keySet());
+                rowsImported += pending.size();
+            } catch (final DataAccessException ex) {
+                log.warn("Import batch {} failed: {}", batches + 1, ex.getMostSpecificCause().getMessage());
+                final String message = "Batch write failed: " + ex.getMostSpecificCause().getMessage();
+                pending.values().forEach(row -> reject(row.lineNumber(), message));
+            }
+            batches++;
+            pending.clear();
+        }
+
+        void reject(final long lineNumber, final String message) {
+            rowsRejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportReport.RowError(lineNumber, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+
+        ImportReport report() {
+            final long elapsedNanos = Math.max(1, System.nanoTime() - startedAt);
+            return ImportReport.builder()
+                .rowsRead(rowsRead)
+                .rowsImported(rowsImported)
+                .rowsRejected(rowsRejected)
+                .rowsSuperseded(rowsSuperseded)
+                .batches(batches)
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .rowsPerSecond(rowsImported * 1_000_000_000.0 / elapsedNanos)
+                .errors(List.copyOf(errors))
+                .errorsTruncated(errorsTruncated)
+                .build();
+        }
+    }
+
+    private record PendingRow(long lineNumber, UserSelectionImportRow row) {
+
+        SelectionWrite write() {
+            return new SelectionWrite(row.sessionId(), row.name(), row.agreeToTerms(), SectorIds.of(row.sectorIds()), false);
+        }
+    }
+}
@@ -1,37 +1,50 @@
 package com.helmes.sector.service;
 
+import com.helmes.sector.dto.SectorIds;
 import com.helmes.sector.dto.UserSelectionRequest;
 import com.helmes.sector.dto.UserSelectionResponse;
 import com.helmes.sector.entity.Sector;
 import com.helmes.sector.entity.UserSelection;
 import com.helmes.sector.repository.SectorRepository;
+import com.helmes.sector.repository.UpsertedSelection;
 import com.helmes.sector.repository.UserSelectionRepository;
+import com.helmes.sector.repository.UserSelectionRow;
+import io.micrometer.observation.annotation.Observed;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@Observed(name = "app.service")
 @RequiredArgsConstructor
 @Transactional
 public class UserSelectionService {
 
     private final UserSelectionRepository userSelectionRepository;
     private final SectorRepository sectorRepository;
-    
-    @Transactional(readOnly = true)
+    private final SectorService sectorService;
+    private final SectorSelectionCounter selectionCounter;
+    private final UserSelectionCache selectionCache;
+
+    /**
+     * Served from {@link UserSelectionCache}, so a hit needs no transaction. A miss reads the selection and
+     * its sector ids in one statement, straight into the response without loading entities.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Optional<UserSelectionResponse> findBySessionId(final String sessionId) {
-        return userSelectionRepository.findBySessionId(sessionId)
-            .map(this::toResponse);
+        return selectionCache.get(sessionId, key -> userSelectionRepository.findRowBySessionId(key)
+            .map(UserSelectionService::toResponse));
     }
     
     public UserSelectionResponse create(final String sessionId, final UserSelectionRequest request) {
-        userSelectionRepository.findBySessionId(sessionId).ifPresent(existing -> {
-            throw new IllegalStateException("Selection already exists for this session. Use update instead.");
-        });
+        if (userSelectionRepository.existsBySessionId(sessionId)) {
+            return existingIfIdentical(sessionId, request);
+        }
 
         final Set<Sector> sectors = resolveSectors(request.sectorIds());
 
@@ -42,41 +55,156 @@ public class UserSelectionService {
             .sectors(sectors)
             .build();
 
-        return toResponse(userSelectionRepository.save(entity));
+        return recordWrite(sessionId, List.of(), toResponse(userSelectionRepository.save(entity), request.sectorIds()));
     }
     
     public UserSelectionResponse update(final String sessionId, final UserSelectionRequest request) {
         final UserSelection entity = userSelectionRepository.findBySessionId(sessionId)
             .orElseThrow(() -> new IllegalStateException("No selection found for this session. Use create instead."));
 
-        final Set<Sector> sectors = resolveSectors(request.sectorIds());
+        validateSectorIds(request.sectorIds());
 
+        final SectorIds previousIds = SectorIds.of(entity.getSectors(), Sector::getId);
         entity.setName(request.name());
         entity.setAgreeToTerms(request.agreeToTerms());
-        entity.setSectors(sectors);
+        applySectorChanges(entity.getSectors(), request.sectorIds());
+
+        // The entity is managed, so no save() (a merge would initialize every sector reference). Flushing
+        // here runs @PreUpdate and sends the batched join-table changes before the response is built.
+        userSelectionRepository.flush();
+        return recordWrite(sessionId, previousIds.asList(), toResponse(entity, request.sectorIds()));
+    }
+
+    /**
+     * Idempotent create-or-replace in a single statement, without the lookup and race window of
+     * {@link #create} and {@link #update}.
+     */
+    public UserSelectionResponse upsert(final String sessionId, final UserSelectionRequest request) {
+        validateSectorIds(request.sectorIds());
 
-        return toResponse(userSelectionRepository.save(entity));
+        final UpsertedSelection saved = userSelectionRepository.upsert(
+            sessionId,
+            request.name(),
+            request.agreeToTerms(),
+            request.sectorIds().toArray()
+        );
+        return recordUpsert(sessionId, request, saved);
     }
 
-    private Set<Sector> resolveSectors(final Set<Long> sectorIds) {
-        final Set<Sector> sectors = new HashSet<>(sectorRepository.findAllById(sectorIds));
+    /**
+     * Resolves a create for a session that already has a selection. When the stored selection has exactly the
+     * requested content, it is returned as if just created: the client is most likely retrying a create whose
+     * response it never got, for example a batched save that answered 503 but committed later. Any other
+     * existing selection is a conflict.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public UserSelectionResponse existingIfIdentical(final String sessionId, final UserSelectionRequest request) {
+        return findBySessionId(sessionId)
+            .filter(existing -> existing.name().equals(request.name())
+                && existing.agreeToTerms() == request.agreeToTerms()
+                && existing.sectorIds().equals(request.sectorIds()))
+            .orElseThrow(() -> new IllegalStateException("Selection already exists for this session. Use update instead."));
+    }
 
-        if (sectors.size() != sectorIds.size()) {
+    /**
+     * Rejects sector ids the in-memory taxonomy does not know. Every write path validates through here before it
+     * writes anything.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void validateSectorIds(final SectorIds sectorIds) {
+        if (!sectorService.getTaxonomy().containsAll(sectorIds)) {
             throw new IllegalArgumentException("One or more sector IDs are invalid.");
         }
+    }
+
+    /**
+     * Builds the response for an upserted selection and records the write in the selection counts and the
+     * response cache, both applied once the surrounding transaction commits. Used by {@link #upsert} and by
+     * writers that upsert outside this service, such as {@link UserSelectionWriteBatcher}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public UserSelectionResponse recordUpsert(
+        final String sessionId,
+        final UserSelectionRequest request,
+        final UpsertedSelection saved
+    ) {
+        return recordWrite(sessionId, List.of(saved.getPreviousSectorIds()), toResponse(saved, request));
+    }
 
+    private UserSelectionResponse recordWrite(
+        final String sessionId,
+        final List<Long> previousSectorIds,
+        final UserSelectionResponse response
+    ) {
+        selectionCounter.recordChange(previousSectorIds, response.sectorIds().asList());
+        selectionCache.put(sessionId, response);
+        return response;
+    }
+
+    /**
+     * Validates against the in-memory taxonomy and attaches the sectors as references, so no
+     * sector rows are read on the write path.
+     */
+    private Set<Sector> resolveSectors(final SectorIds sectorIds) {
+        validateSectorIds(sectorIds);
+
+        final Set<Sector> sectors = HashSet.newHashSet(sectorIds.size());
+        for (int i = 0; i < sectorIds.size(); i++) {
+            sectors.add(sectorRepository.getReferenceById(sectorIds.get(i)));
+        }
         return sectors;
     }
 
-    private UserSelectionResponse toResponse(final UserSelection entity) {
+    /**
+     * Changes the persistent collection in place, so Hibernate only deletes the removed and inserts the
+     * added join rows. Replacing the collection would delete and re-insert all of them. Kept ids are marked by
+     * their position in {@code requestedIds}.
+     */
+    private void applySectorChanges(final Set<Sector> current, final SectorIds requestedIds) {
+        final boolean[] kept = new boolean[requestedIds.size()];
+        current.removeIf(sector -> {
+            final int index = requestedIds.indexOf(sector.getId());
+            if (index >= 0) {
+                kept[index] = true;
+                return false;
+            }
+            return true;
+        });
+
+        for (int i = 0; i < kept.length; i++) {
+            if (!kept[i]) {
+                current.add(sectorRepository.getReferenceById(requestedIds.get(i)));
+            }
+        }
+    }
+
+    static UserSelectionResponse toResponse(final UserSelectionRow row) {
+        return UserSelectionResponse.builder()
+            .id(row.getId())
+            .name(row.getName())
+            .sectorIds(SectorIds.of(row.getSectorIds()))
+            .agreeToTerms(row.isAgreeToTerms())
+            .createdAt(row.getCreatedAt())
+            .updatedAt(row.getUpdatedAt())
+            .build();
+    }
+
+    private static UserSelectionResponse toResponse(final UpsertedSelection saved, final UserSelectionRequest request) {
+        return UserSelectionResponse.builder()
+            .id(saved.getId())
+            .name(request.name())
+            .sectorIds(request.sectorIds())
+            .agreeToTerms(request.agreeToTerms())
+            .createdAt(saved.getCreatedAt())
+            .updatedAt(saved.getUpdatedAt())
+            .build();
+    }
+
+    private static UserSelectionResponse toResponse(final UserSelection entity, final SectorIds sectorIds) {
         return UserSelectionResponse.builder()
             .id(entity.getId())
             .name(entity.getName())
-            .sectorIds(
-                entity.getSectors().stream()
-                    .map(Sector::getId)
-                    .collect(Collectors.toSet())
-            )
+            .sectorIds(sectorIds)
             .agreeToTerms(entity.isAgreeToTerms())
             .createdAt(entity.getCreatedAt())
             .updatedAt(entity.getUpdatedAt())
@@ -0,0 +1,356 @@
+package com.helmes.sector.service;
+
+import com.helmes.sector.dto.UserSelectionRequest;
+import com.helmes.sector.dto.UserSelectionResponse;
+import com.helmes.sector.exception.AdmissionRejectedException;
+import com.helmes.sector.monitoring.StatementCounter;
+import com.helmes.sector.repository.SelectionWrite;
+import com.helmes.sector.repository.UpsertedSelection;
+import com.helmes.sector.repository.UserSelectionBulkRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Group commit for selection saves: concurrent {@link #create} and {@link #upsert} calls are collected into
+ * short batches that are written by one statement and committed in one transaction.
+ *
+ * <p>A single writer thread takes the first waiting write, then keeps collecting until the batch holds
+ * {@code max-batch-size} writes or {@code max-wait} has passed. While a batch commits, the next one fills up,
+ * so under load the commit cost is shared by many requests while a lone write waits at most {@code max-wait}.
+ * Each caller blocks until its batch has committed and then gets its own response or error, so a saved
+ * selection is exactly as durable as with {@link UserSelectionService}. A second write for a session that is
+ * already in the batch waits for the next one, which keeps the writes of one session in order.
+ *
+ * <p>When a batch fails, its writes are retried one by one, so a single bad write fails only its own request.
+ *
+ * <p>A batch transaction times out after {@code commit-timeout}, and a caller waits at most {@code max-wait}
+ * plus {@code commit-timeout} for its batch. A caller that gives up, or that arrives while the writer is
+ * shutting down, gets a 503 with {@code Retry-After}. A write that was still queued is then dropped; one whose
+ * batch was already running may still commit. Retrying is safe either way: an upsert is idempotent, and a create
+ * that finds a selection identical to its request succeeds (see {@link UserSelectionService#existingIfIdentical}).
+ *
+ * <p>The statements of a batch run on the writer thread, so they are added back to each caller's
+ * {@link StatementCounter} count once its batch has committed. Every request in a batch is counted with the
+ * batch's statements, which is what {@code http.server.requests.statements} reports for it.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.write-batching", name = "enabled", havingValue = "true")
+@Slf4j
+public class UserSelectionWriteBatcher {
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+    private static final Duration STOP_TIMEOUT = Duration.ofSeconds(10);
+
+    private final UserSelectionBulkRepository bulkRepository;
+    private final UserSelectionService selectionService;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchSize;
+    private final Duration maxWait;
+    private final Duration callerTimeout;
+    private final DistributionSummary batchSizes;
+
+    private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+    private final Deque<PendingWrite> deferred = new ArrayDeque<>();
+    // Held shared while a write is queued and exclusively while stopping, so nothing is queued after the
+    // writer has been told to stop.
+    private final ReadWriteLock submitLock = new ReentrantReadWriteLock();
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public UserSelectionWriteBatcher(
+        final UserSelectionBulkRepository bulkRepository,
+        final UserSelectionService selectionService,
+        final PlatformTransactionManager transactionManager,
+        final Settings settings,
+        final MeterRegistry meterRegistry
+    ) {
+        this.bulkRepository = bulkRepository;
+        this.selectionService = selectionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setTimeout((int) Math.ceil(settings.commitTimeout().toMillis() / 1000.0));
+        this.maxBatchSize = settings.maxBatchSize();
+        this.maxWait = settings.maxWait();
+        this.callerTimeout = settings.maxWait().plus(settings.commitTimeout());
+        this.batchSizes = DistributionSummary.builder("app.write-batching.batch-size")
+            .description("Selection writes committed together")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        thread = Thread.ofPlatform().name("selection-group-commit").daemon().start(this::run);
+    }
+
+    /**
+     * Stops taking new writes; writes already waiting are still committed before the thread ends. Writes the
+     * thread did not get to in time are failed.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        submitLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            submitLock.writeLock().unlock();
+        }
+        thread.interrupt();
+        thread.join(STOP_TIMEOUT);
+
+        final List<PendingWrite> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        if (!thread.isAlive()) {
+            abandoned.addAll(deferred);
+            deferred.clear();
+        }
+        abandoned.forEach(pending -> pending.result().completeExceptionally(shuttingDown()));
+    }
+
+    /**
+     * Same contract as {@link UserSelectionService#create}.
+     */
+    public UserSelectionResponse create(final String sessionId, final UserSelectionRequest request) {
+        return submit(sessionId, request, true);
+    }
+
+    /**
+     * Same contract as {@link UserSelectionService#upsert}.
+     */
+    public UserSelectionResponse upsert(final String sessionId, final UserSelectionRequest request) {
+        return submit(sessionId, request, false);
+    }
+
+    private UserSelectionResponse submit(
+        final String sessionId,
+        final UserSelectionRequest request,
+        final boolean createOnly
+    ) {
+        selectionService.validateSectorIds(request.sectorIds());
+        final PendingWrite pending = new PendingWrite(
+            new SelectionWrite(sessionId, request.name(), request.agreeToTerms(), request.sectorIds(), createOnly),
+            request,
+            new CompletableFuture<>()
+        );
+        submitLock.readLock().lock();
+        try {
+            if (!running) {
+                throw shuttingDown();
+            }
+            queue.add(pending);
+        } finally {
+            submitLock.readLock().unlock();
+        }
+        final Committed committed = await(pending);
+        StatementCounter.attribute(committed.statements());
+        if (committed.response() == null) {
+            return selectionService.existingIfIdentical(sessionId, request);
+        }
+        return committed.response();
+    }
+
+    private Committed await(final PendingWrite pending) {
+        try {
+            return pending.result().get(callerTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (final TimeoutException ex) {
+            pending.result().cancel(false);
+            log.warn("Selection write did not commit within {}", callerTimeout);
+            throw new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE,
+                "The save did not complete in time. Retry later.", RETRY_AFTER);
+        } catch (final InterruptedException ex) {
+            pending.result().cancel(false);
+            Thread.currentThread().interrupt();
+            throw shuttingDown();
+        } catch (final ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Selection write failed.", ex.getCause());
+        }
+    }
+
+    private static AdmissionRejectedException shuttingDown() {
+        return new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE,
+            "Selection writes are shutting down. Retry later.", RETRY_AFTER);
+    }
+
+    /**
+     * Runs until stopped and drained. Any failure completes the batch it happened in, so no caller is left
+     * waiting on a write the thread has given up on.
+     */
+    private void run() {
+        while (running || !queue.isEmpty() || !deferred.isEmpty()) {
+            List<PendingWrite> batch = List.of();
+            try {
+                batch = collect();
+                if (!batch.isEmpty()) {
+                    write(batch);
+                }
+            } catch (final Throwable ex) {
+                log.error("Selection group commit failed for a batch of {} writes", batch.size(), ex);
+                for (final PendingWrite pending : batch) {
+                    pending.result().completeExceptionally(ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * The next batch: writes deferred from the previous batch first, then new ones in arrival order.
+     */
+    private List<PendingWrite> collect() {
+        final Map<String, PendingWrite> batch = new LinkedHashMap<>();
+        final List<PendingWrite> held = new ArrayList<>();
+        while (!deferred.isEmpty()) {
+            add(batch, held, deferred.poll());
+        }
+        try {
+            if (batch.isEmpty()) {
+                final PendingWrite first = running ? queue.take() : queue.poll();
+                if (first == null) {
+                    return List.of();
+                }
+                add(batch, held, first);
+            }
+            final long deadline = System.nanoTime() + maxWait.toNanos();
+            while (batch.size() < maxBatchSize) {
+                final PendingWrite next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    break;
+                }
+                add(batch, held, next);
+            }
+        } catch (final InterruptedException ex) {
+            // Interrupted by stop(); whatever has been collected is still written.
+        }
+        deferred.addAll(held);
+        return List.copyOf(batch.values());
+    }
+
+    /**
+     * Skips writes whose caller has already given up.
+     */
+    private void add(final Map<String, PendingWrite> batch, final List<PendingWrite> held, final PendingWrite write) {
+        if (write.result().isDone()) {
+            return;
+        }
+        if (batch.size() >= maxBatchSize || batch.putIfAbsent(write.write().sessionId(), write) != null) {
+            held.add(write);
+        }
+    }
+
+    private void write(final List<PendingWrite> batch) {
+        final long statementsBefore = StatementCounter.current();
+        final List<UserSelectionResponse> responses;
+        try {
+            responses = transactionTemplate.execute(status -> writeAll(batch));
+        } catch (final DataAccessException | TransactionException ex) {
+            if (batch.size() == 1) {
+                batch.getFirst().result().completeExceptionally(ex);
+                return;
+            }
+            log.warn("Batch of {} selection writes failed, retrying them one by one: {}",
+                batch.size(), ex.getMessage());
+            batch.forEach(pending -> write(List.of(pending)));
+            return;
+        } catch (final RuntimeException ex) {
+            batch.forEach(pending -> pending.result().completeExceptionally(ex));
+            return;
+        }
+        batchSizes.record(batch.size());
+        final long statements = StatementCounter.current() - statementsBefore;
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(new Committed(responses.get(i), statements));
+        }
+    }
+
+    /**
+     * Writes the batch and records each write through {@link UserSelectionService#recordUpsert}, whose counter and
+     * cache updates apply once the batch commits. The response of a create-only write that found an existing
+     * selection is {@code null}.
+     */
+    private List<UserSelectionResponse> writeAll(final List<PendingWrite> batch) {
+        final Map<String, UpsertedSelection> written = bulkRepository.writeAll(
+            batch.stream().map(PendingWrite::write).toList());
+        final List<UserSelectionResponse> responses = new ArrayList<>(batch.size());
+        for (final PendingWrite pending : batch) {
+            final String sessionId = pending.write().sessionId();
+            final UpsertedSelection saved = written.get(sessionId);
+            if (saved == null) {
+                responses.add(null);
+                continue;
+            }
+            responses.add(selectionService.recordUpsert(sessionId, pending.request(), saved));
+        }
+        return responses;
+    }
+
+    /**
+     * Batching settings, bound from {@code app.write-batching}.
+     *
+     * @param maxBatchSize  most writes committed together
+     * @param maxWait       how long the writer waits for a batch to fill
+     * @param commitTimeout transaction timeout of a batch, rounded up to whole seconds
+     */
+    @ConfigurationProperties(prefix = "app.write-batching")
+    public record Settings(
+        @DefaultValue("64") int maxBatchSize,
+        @DefaultValue("2ms") Duration maxWait,
+        @DefaultValue("5s") Duration commitTimeout
+    ) {
+
+        public Settings {
+            if (maxBatchSize < 1) {
+                throw new IllegalArgumentException("Maximum batch size must be at least 1.");
+            }
+            if (commitTimeout.isNegative() || commitTimeout.isZero()) {
+                throw new IllegalArgumentException("Commit timeout must be positive.");
+            }
+        }
+    }
+
+    private record PendingWrite(
+        SelectionWrite write,
+        UserSelectionRequest request,
+        CompletableFuture<Committed> result
+    ) {
+    }
+
+    /**
+     * A committed write and the statements its batch took. The response is {@code null} for a create that found
+     * an existing selection.
+     */
+    private record Committed(UserSelectionResponse response, long statements) {
+    }
+}
@@ -0,0 +1,440 @@
+package com.helmes.sector.session;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+/**
+ * Keeps hot sessions in a bounded in-process cache in front of a persistent session repository and
+ * writes changes back to it in the background.
+ *
+ * <p>New sessions and session id changes are written through immediately, so every node can resolve a
+ * session as soon as its cookie has been issued. Later changes (mostly the last-access time) only mark the
+ * session dirty; a background task saves each dirty session once per flush interval, no matter how many
+ * requests touched it in between. A node that dies loses at most one flush interval of last-access and
+ * attribute updates, and any other node can take the session over from the database.
+ *
+ * <p>Cache entries expire after the session's own max inactive interval, i.e. {@code spring.session.timeout}.
+ * Deletes and id changes are announced to the other nodes through the {@link ChangePublisher}, and ids announced
+ * by other nodes drop the local entry via {@link #invalidate}, so a logged-out or re-keyed session is not served
+ * from another node's cache. Write-backs are not announced: behind a round-robin balancer every node would drop
+ * every session on every flush, and the cache would barely help. The trade-off is that a node may serve a copy
+ * older than the one another node wrote back. This application keeps nothing in the session besides its id, so
+ * such a copy differs only in its last-access time, and the copy expires locally no later than the stored one
+ * would have. A deployment that keeps attributes in the session which change after they are first set needs
+ * sticky routing.
+ */
+@Slf4j
+public class NearCacheSessionRepository<S extends Session>
+    implements FindByIndexNameSessionRepository<NearCacheSessionRepository.CachedSession<S>> {
+
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    private final FindByIndexNameSessionRepository<S> delegate;
+    private final ChangePublisher changePublisher;
+    private final Cache<String, CachedSession<S>> cache;
+    private final Set<CachedSession<S>> dirty = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService flusher;
+
+    NearCacheSessionRepository(
+        final FindByIndexNameSessionRepository<S> delegate,
+        final long maximumSize,
+        final Duration flushInterval
+    ) {
+        this(delegate, maximumSize, flushInterval, ChangePublisher.NONE);
+    }
+
+    NearCacheSessionRepository(
+        final FindByIndexNameSessionRepository<S> delegate,
+        final long maximumSize,
+        final Duration flushInterval,
+        final ChangePublisher changePublisher
+    ) {
+        this.delegate = delegate;
+        this.changePublisher = changePublisher;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new SessionExpiry<S>())
+            .evictionListener(this::onEviction)
+            .build();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("session-write-behind").daemon().factory()
+        );
+        this.flusher.scheduleWithFixedDelay(this::flush, flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public CachedSession<S> createSession() {
+        return new CachedSession<>(delegate.createSession(), null);
+    }
+
+    @Override
+    public void save(final CachedSession<S> session) {
+        final String previousId = session.persistedId;
+        final String id = session.getId();
+        if (id.equals(previousId)) {
+            dirty.add(session);
+            return;
+        }
+
+        session.writeTo(delegate);
+        session.persistedId = id;
+        dirty.remove(session);
+        if (previousId != null) {
+            cache.invalidate(previousId);
+            changePublisher.publish(List.of(previousId));
+        }
+        cache.put(id, session);
+    }
+
+    @Override
+    public CachedSession<S> findById(final String id) {
+        final CachedSession<S> cached = cache.getIfPresent(id);
+        if (cached != null && !cached.isExpired()) {
+            return cached;
+        }
+        if (cached != null) {
+            cache.invalidate(id);
+            dirty.remove(cached);
+        }
+
+        // Loaded outside the cache: a load inside Cache.get would block other keys in the same hash bin for the
+        // duration of the query and pin a virtual thread. Concurrent misses may both query, and the first one wins.
+        final S loaded = delegate.findById(id);
+        if (loaded == null) {
+            return null;
+        }
+        final CachedSession<S> session = new CachedSession<>(loaded, id);
+        final CachedSession<S> raced = cache.asMap().putIfAbsent(id, session);
+        return raced != null ? raced : session;
+    }
+
+    @Override
+    public void deleteById(final String id) {
+        final CachedSession<S> removed = cache.asMap().remove(id);
+        if (removed != null) {
+            dirty.remove(removed);
+        }
+        delegate.deleteById(id);
+        changePublisher.publish(List.of(id));
+    }
+
+    @Override
+    public Map<String, CachedSession<S>> findByIndexNameAndIndexValue(final String indexName, final String indexValue) {
+        final Map<String, CachedSession<S>> result = new LinkedHashMap<>();
+        delegate.findByIndexNameAndIndexValue(indexName, indexValue).forEach((id, session) -> {
+            final CachedSession<S> cached = cache.getIfPresent(id);
+            result.put(id, cached != null ? cached : new CachedSession<>(session, id));
+        });
+        return result;
+    }
+
+    /**
+     * Writes every dirty session back to the delegate. Sessions that fail to save stay dirty and are
+     * retried on the next flush.
+     */
+    public void flush() {
+        int written = 0;
+        for (final CachedSession<S> session : dirty) {
+            if (dirty.remove(session) && write(session)) {
+                written++;
+            }
+        }
+        if (written > 0) {
+            log.debug("Flushed {} session(s) to the session store", written);
+        }
+    }
+
+    /**
+     * Drops sessions that another node deleted or re-keyed, together with any local change not written back yet.
+     */
+    public void invalidate(final Collection<String> ids) {
+        for (final String id : ids) {
+            final CachedSession<S> removed = cache.asMap().remove(id);
+            if (removed != null) {
+                dirty.remove(removed);
+            }
+        }
+    }
+
+    /**
+     * Writes back pending changes and empties the cache, for when changes from other nodes may have been missed.
+     */
+    public void invalidateAll() {
+        flush();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Stops the background task and writes out whatever is still pending.
+     */
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private boolean write(final CachedSession<S> session) {
+        if (session.isExpired()) {
+            return false;
+        }
+        try {
+            session.writeTo(delegate);
+            return true;
+        } catch (final RuntimeException ex) {
+            log.warn("Failed to write back session, will retry: {}", ex.getMessage());
+            dirty.add(session);
+            return false;
+        }
+    }
+
+    /**
+     * Runs on Caffeine's maintenance thread, so the write-back is handed to the flusher instead of blocking it.
+     */
+    private void onEviction(final String id, final CachedSession<S> session, final RemovalCause cause) {
+        if (session == null || !dirty.remove(session)) {
+            return;
+        }
+        try {
+            flusher.execute(() -> write(session));
+        } catch (final RejectedExecutionException ex) {
+            write(session);
+        }
+    }
+
+    /**
+     * Announces session ids that were deleted or replaced by a new id, so other nodes drop their cached copy.
+     */
+    @FunctionalInterface
+    public interface ChangePublisher {
+
+        ChangePublisher NONE = ids -> { };
+
+        void publish(Collection<String> ids);
+    }
+
+    /**
+     * A cached session. Instances are shared by concurrent requests of the same session and by the write-behind
+     * task. Requests read and change a local copy under a lock that is only held for the change itself. A write
+     * takes the changes made since the last write under that lock, then applies them to the stored copy and saves
+     * it under a second lock, so a slow save never holds up a request reading or touching the session. Only an id
+     * change waits for a save in progress, as both change the stored copy. Both are {@link ReentrantLock}s, so a
+     * virtual thread waiting on one does not pin its carrier.
+     */
+    public static final class CachedSession<S extends Session> implements Session {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ReentrantLock writeLock = new ReentrantLock();
+        // Guarded by lock.
+        private final MapSession local;
+        private final Set<String> changedAttributes = new HashSet<>();
+        // Guarded by writeLock.
+        private final S stored;
+        private volatile String persistedId;
+
+        private CachedSession(final S stored, final String persistedId) {
+            this.stored = stored;
+            this.local = new MapSession(stored);
+            this.persistedId = persistedId;
+        }
+
+        @Override
+        public String getId() {
+            return read(MapSession::getId);
+        }
+
+        @Override
+        public String changeSessionId() {
+            writeLock.lock();
+            try {
+                final String id = stored.changeSessionId();
+                change(session -> session.setId(id));
+                return id;
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        @Override
+        public <T> T getAttribute(final String attributeName) {
+            return read(session -> session.getAttribute(attributeName));
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return read(session -> Set.copyOf(session.getAttributeNames()));
+        }
+
+        @Override
+        public void setAttribute(final String attributeName, final Object attributeValue) {
+            change(session -> {
+                session.setAttribute(attributeName, attributeValue);
+                changedAttributes.add(attributeName);
+            });
+        }
+
+        @Override
+        public void removeAttribute(final String attributeName) {
+            change(session -> {
+                session.removeAttribute(attributeName);
+                changedAttributes.add(attributeName);
+            });
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return read(MapSession::getCreationTime);
+        }
+
+        @Override
+        public void setLastAccessedTime(final Instant lastAccessedTime) {
+            change(session -> session.setLastAccessedTime(lastAccessedTime));
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return read(MapSession::getLastAccessedTime);
+        }
+
+        @Override
+        public void setMaxInactiveInterval(final Duration interval) {
+            change(session -> session.setMaxInactiveInterval(interval));
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return read(MapSession::getMaxInactiveInterval);
+        }
+
+        @Override
+        public boolean isExpired() {
+            return read(MapSession::isExpired);
+        }
+
+        /**
+         * Saves the changes made since the last write. When the save fails they are kept for the next one.
+         */
+        private void writeTo(final SessionRepository<S> repository) {
+            writeLock.lock();
+            try {
+                final Changes changes = takeChanges();
+                try {
+                    changes.applyTo(stored);
+                    repository.save(stored);
+                } catch (final RuntimeException ex) {
+                    change(session -> changedAttributes.addAll(changes.attributes().keySet()));
+                    throw ex;
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        private <T> T read(final Function<MapSession, T> reader) {
+            lock.lock();
+            try {
+                return reader.apply(local);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void change(final Consumer<MapSession> change) {
+            lock.lock();
+            try {
+                change.accept(local);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private Changes takeChanges() {
+            lock.lock();
+            try {
+                final Map<String, Object> attributes = new HashMap<>();
+                changedAttributes.forEach(name -> attributes.put(name, local.getAttribute(name)));
+                changedAttributes.clear();
+                return new Changes(local.getLastAccessedTime(), local.getMaxInactiveInterval(), attributes);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * What a write copies from a cached session to its stored copy. A {@code null} attribute value was removed.
+     */
+    private record Changes(Instant lastAccessedTime, Duration maxInactiveInterval, Map<String, Object> attributes) {
+
+        void applyTo(final Session target) {
+            target.setLastAccessedTime(lastAccessedTime);
+            target.setMaxInactiveInterval(maxInactiveInterval);
+            attributes.forEach((name, value) -> {
+                if (value != null) {
+                    target.setAttribute(name, value);
+                } else {
+                    target.removeAttribute(name);
+                }
+            });
+        }
+    }
+
+    /**
+     * Expires entries on the same schedule as the sessions themselves: max inactive interval after the last access.
+     */
+    private static final class SessionExpiry<S extends Session> implements Expiry<String, CachedSession<S>> {
+
+        @Override
+        public long expireAfterCreate(final String id, final CachedSession<S> session, final long currentTime) {
+            return remainingNanos(session);
+        }
+
+        @Override
+        public long expireAfterUpdate(final String id, final CachedSession<S> session, final long currentTime,
+                                      final long currentDuration) {
+            return remainingNanos(session);
+        }
+
+        @Override
+        public long expireAfterRead(final String id, final CachedSession<S> session, final long currentTime,
+                                    final long currentDuration) {
+            return session.getMaxInactiveInterval().isNegative() ? Long.MAX_VALUE : session.getMaxInactiveInterval().toNanos();
+        }
+
+        private long remainingNanos(final CachedSession<S> session) {
+            final Duration maxInactive = session.getMaxInactiveInterval();
+            if (maxInactive.isNegative()) {
+                return Long.MAX_VALUE;
+            }
+            final Duration remaining = Duration.between(Instant.now(), session.getLastAccessedTime().plus(maxInactive));
+            return Math.max(remaining.toNanos(), 0);
+        }
+    }
+}
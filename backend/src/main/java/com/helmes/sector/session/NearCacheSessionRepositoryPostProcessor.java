@@ -0,0 +1,69 @@
+package com.helmes.sector.session;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.DestructionAwareBeanPostProcessor;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+
+/**
+ * Wraps Spring Boot's auto-configured {@link JdbcIndexedSessionRepository} in a {@link NearCacheSessionRepository}.
+ *
+ * <p>Declaring a second {@code SessionRepository} bean would make Boot back off its whole JDBC session
+ * configuration (timeout, schema initialization, expired-session cleanup), so the JDBC repository is
+ * decorated in place instead. Pending writes are flushed before the JDBC repository is destroyed, by which time
+ * the notification listener has already stopped.
+ *
+ * <p>When a {@link SessionChangeChannel} is available, the near cache announces its changes through it and
+ * drops the sessions that other nodes change.
+ */
+public class NearCacheSessionRepositoryPostProcessor implements DestructionAwareBeanPostProcessor {
+
+    private final long maximumSize;
+    private final Duration flushInterval;
+    private final ObjectProvider<SessionChangeChannel> changeChannel;
+    private final Map<String, NearCacheSessionRepository<?>> nearCaches = new ConcurrentHashMap<>();
+
+    public NearCacheSessionRepositoryPostProcessor(
+        final long maximumSize,
+        final Duration flushInterval,
+        final ObjectProvider<SessionChangeChannel> changeChannel
+    ) {
+        this.maximumSize = maximumSize;
+        this.flushInterval = flushInterval;
+        this.changeChannel = changeChannel;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+        if (bean instanceof JdbcIndexedSessionRepository jdbcSessionRepository) {
+            final SessionChangeChannel channel = changeChannel.getIfAvailable();
+            final NearCacheSessionRepository<?> nearCache = new NearCacheSessionRepository<>(
+                jdbcSessionRepository,
+                maximumSize,
+                flushInterval,
+                channel != null ? channel : NearCacheSessionRepository.ChangePublisher.NONE
+            );
+            if (channel != null) {
+                channel.start(nearCache);
+            }
+            nearCaches.put(beanName, nearCache);
+            return nearCache;
+        }
+        return bean;
+    }
+
+    @Override
+    public void postProcessBeforeDestruction(final Object bean, final String beanName) {
+        final NearCacheSessionRepository<?> nearCache = nearCaches.remove(beanName);
+        if (nearCache != null) {
+            nearCache.close();
+        }
+    }
+
+    @Override
+    public boolean requiresDestruction(final Object bean) {
+        return bean instanceof JdbcIndexedSessionRepository;
+    }
+}
@@ -0,0 +1,91 @@
+package com.helmes.sector.session;
+
+import com.helmes.sector.repository.PostgresNotificationListener;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Tells the other nodes which sessions this node deleted or re-keyed, and drops the sessions the other nodes
+ * announce from the local {@link NearCacheSessionRepository}.
+ *
+ * <p>Changes are sent with {@code pg_notify} on the {@value #CHANNEL} channel through the regular pool, as
+ * {@code <node id>:<session id>,<session id>...}, so a node can skip its own announcements. They are received
+ * through the {@link PostgresNotificationListener}. Notifications sent while its connection is down are lost, so
+ * after every (re)connect the whole near cache is written back and dropped.
+ */
+@Slf4j
+public class SessionChangeChannel implements NearCacheSessionRepository.ChangePublisher,
+    PostgresNotificationListener.Handler {
+
+    static final String CHANNEL = "session_changed";
+
+    // Keeps a notification well under Postgres' 8000 byte payload limit with 36 character session ids.
+    private static final int IDS_PER_NOTIFICATION = 150;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PostgresNotificationListener notificationListener;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile NearCacheSessionRepository<?> nearCache;
+
+    public SessionChangeChannel(final DataSource dataSource, final PostgresNotificationListener notificationListener) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.notificationListener = notificationListener;
+    }
+
+    /**
+     * Applies other nodes' changes to the given near cache once the notification listener has started.
+     */
+    public void start(final NearCacheSessionRepository<?> target) {
+        nearCache = target;
+        notificationListener.register(CHANNEL, this);
+    }
+
+    /**
+     * Whether other nodes' changes are currently being received.
+     */
+    public boolean isListening() {
+        return notificationListener.isListening();
+    }
+
+    @Override
+    public void publish(final Collection<String> ids) {
+        final List<String> all = List.copyOf(ids);
+        for (int from = 0; from < all.size(); from += IDS_PER_NOTIFICATION) {
+            final List<String> chunk = all.subList(from, Math.min(from + IDS_PER_NOTIFICATION, all.size()));
+            try {
+                jdbcTemplate.query("SELECT pg_notify(?, ?)", row -> { }, CHANNEL, nodeId + ":" + String.join(",", chunk));
+            } catch (final DataAccessException ex) {
+                log.warn("Failed to announce {} session change(s) to other nodes: {}", chunk.size(), ex.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void onListening(final Connection connection) {
+        nearCache.invalidateAll();
+    }
+
+    @Override
+    public void onNotifications(final List<String> payloads) {
+        final List<String> changed = new ArrayList<>();
+        for (final String payload : payloads) {
+            final int separator = payload.indexOf(':');
+            if (separator > 0 && !payload.substring(0, separator).equals(nodeId)) {
+                changed.addAll(Arrays.asList(payload.substring(separator + 1).split(",")));
+            }
+        }
+        if (!changed.isEmpty()) {
+            log.debug("{} session(s) changed on other nodes", changed.size());
+            nearCache.invalidate(changed);
+        }
+    }
+}
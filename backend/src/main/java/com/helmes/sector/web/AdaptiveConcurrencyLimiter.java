@@ -0,0 +1,171 @@
+package com.helmes.sector.web;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caps the requests in flight for one endpoint, or a group of endpoints, at a limit that follows their latency.
+ *
+ * <p>The limit is adjusted by the latency gradient after every completed request: a long-term moving average
+ * of the response time serves as the baseline, and the limit shrinks when the latest response time rises
+ * above {@value #TOLERANCE} times the baseline and grows by about its square root while it stays below. Once
+ * the database or the connection pool saturates, response times climb and the limit follows them down, so
+ * excess requests wait here instead of in the pool. The limit does not grow while less than half of it is
+ * used. The baseline averages over about {@value #BASELINE_WINDOW} requests, so after a lasting change in
+ * latency it catches up and the limit starts probing upwards again.
+ *
+ * <p>Requests over the limit wait in a bounded queue for at most {@code maxWait}. When the queue is full or
+ * the wait runs out the request is turned away, so a spike is answered quickly instead of piling up.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final int BASELINE_WINDOW = 500;
+    private static final double BASELINE_ALPHA = 2.0 / (BASELINE_WINDOW + 1);
+    private static final double BASELINE_DECAY = 0.95;
+    private static final double MIN_GRADIENT = 0.5;
+
+    /**
+     * @param initialLimit requests in flight before the first adjustment
+     * @param minLimit     lower bound of the limit
+     * @param maxLimit     upper bound of the limit
+     * @param queueSize    requests that may wait for a slot at the same time
+     * @param maxWait      how long a request waits for a slot before it is turned away
+     */
+    public record Settings(int initialLimit, int minLimit, int maxLimit, int queueSize, Duration maxWait) {
+
+        public Settings {
+            if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+                throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max.");
+            }
+        }
+
+        /**
+         * These settings with every limit lowered to at most {@code cap}.
+         */
+        public Settings cappedAt(final int cap) {
+            return new Settings(
+                Math.min(initialLimit, cap),
+                Math.min(minLimit, cap),
+                Math.min(maxLimit, cap),
+                queueSize,
+                maxWait
+            );
+        }
+    }
+
+    /**
+     * Outcome of {@link #acquire()}. Every {@link #ADMITTED} request must be followed by {@link #release}.
+     */
+    public enum Admission {
+        ADMITTED,
+        QUEUE_FULL,
+        TIMED_OUT
+    }
+
+    private final Settings settings;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+
+    private double estimatedLimit;
+    private double baselineNanos;
+    private volatile int limit;
+    private volatile int inFlight;
+    private volatile int queued;
+
+    public AdaptiveConcurrencyLimiter(final Settings settings) {
+        this.settings = settings;
+        this.estimatedLimit = settings.initialLimit();
+        this.limit = settings.initialLimit();
+    }
+
+    /**
+     * Takes a slot, waiting in the queue if none is free.
+     */
+    public Admission acquire() {
+        lock.lock();
+        try {
+            if (inFlight < limit) {
+                inFlight++;
+                return Admission.ADMITTED;
+            }
+            if (queued >= settings.queueSize()) {
+                return Admission.QUEUE_FULL;
+            }
+            queued++;
+            try {
+                long remaining = settings.maxWait().toNanos();
+                while (inFlight >= limit) {
+                    if (remaining <= 0) {
+                        return Admission.TIMED_OUT;
+                    }
+                    remaining = slotFreed.awaitNanos(remaining);
+                }
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return Admission.TIMED_OUT;
+            } finally {
+                queued--;
+            }
+            inFlight++;
+            return Admission.ADMITTED;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frees the slot of a request that took {@code responseNanos} from admission to completion and adjusts the
+     * limit by it.
+     */
+    public void release(final long responseNanos) {
+        lock.lock();
+        try {
+            final boolean underused = inFlight < estimatedLimit / 2;
+            inFlight--;
+            if (responseNanos > 0) {
+                adjust(responseNanos, underused);
+            }
+            for (int free = limit - inFlight; free > 0; free--) {
+                slotFreed.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void adjust(final long responseNanos, final boolean underused) {
+        baselineNanos = baselineNanos == 0
+            ? responseNanos
+            : baselineNanos + (responseNanos - baselineNanos) * BASELINE_ALPHA;
+        if (baselineNanos / responseNanos > 2) {
+            // Latency has recovered well below the baseline; let the baseline follow it down faster.
+            baselineNanos *= BASELINE_DECAY;
+        }
+        if (underused) {
+            return;
+        }
+        final double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, TOLERANCE * baselineNanos / responseNanos));
+        final double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.clamp(
+            estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING,
+            settings.minLimit(),
+            settings.maxLimit()
+        );
+        limit = (int) estimatedLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+}
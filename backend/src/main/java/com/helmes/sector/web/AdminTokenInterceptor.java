@@ -0,0 +1,48 @@
+package com.helmes.sector.web;
+
+import com.helmes.sector.exception.AdminAccessDeniedException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Lets requests through only with {@code Authorization: Bearer <app.bulk.admin-token>}.
+ *
+ * <p>Guards the bulk transfer endpoints, which read and write every user's selection. Without a configured
+ * token they answer 403 to everyone, so a deployment that never set one does not expose them.
+ */
+@Component
+public class AdminTokenInterceptor implements HandlerInterceptor {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final byte[] adminToken;
+
+    public AdminTokenInterceptor(@Value("${app.bulk.admin-token:}") final String adminToken) {
+        this.adminToken = adminToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response, final Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        if (adminToken.length == 0) {
+            throw new AdminAccessDeniedException(HttpStatus.FORBIDDEN,
+                "Bulk transfer is disabled until app.bulk.admin-token is set.");
+        }
+        final String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX) || !MessageDigest.isEqual(
+                adminToken, authorization.substring(BEARER_PREFIX.length()).getBytes(StandardCharsets.UTF_8))) {
+            throw new AdminAccessDeniedException(HttpStatus.UNAUTHORIZED, "A valid admin token is required.");
+        }
+        return true;
+    }
+}
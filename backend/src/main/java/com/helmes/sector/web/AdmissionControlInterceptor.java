@@ -0,0 +1,142 @@
+package com.helmes.sector.web;
+
+import com.helmes.sector.exception.AdmissionRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Admits reads to each endpoint through its own {@link AdaptiveConcurrencyLimiter}, and writes to all
+ * endpoints through one shared limiter.
+ *
+ * <p>Endpoints are told apart by method and path pattern. Every write holds a pooled connection, so writes draw
+ * on one budget however many write endpoints there are, and a burst of saves that saturates the connection pool
+ * sheds writes while reads keep their own slots. A rejected request
+ * gets 429 when the endpoint's queue is already full and 503 when it waited in the queue for too long, both
+ * with a {@code Retry-After} header. The response time that drives the limit is measured from admission to
+ * completion, so time spent queueing here does not feed back into the limit.
+ *
+ * <p>Each limiter publishes {@code app.admission.limit}, {@code app.admission.in-flight} and
+ * {@code app.admission.queued} gauges, tagged with the {@code endpoint} and its {@code budget}; the shared
+ * write limiter is tagged with endpoint {@value #ALL_WRITES}. Each endpoint counts its rejections in
+ * {@code app.admission.rejections}.
+ */
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    private static final String LIMITER_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".limiter";
+    private static final String ADMITTED_AT_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".admittedAt";
+    private static final String ALL_WRITES = "*";
+
+    private final AdaptiveConcurrencyLimiter.Settings reads;
+    private final AdaptiveConcurrencyLimiter writes;
+    private final Duration retryAfter;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public AdmissionControlInterceptor(
+        final AdaptiveConcurrencyLimiter.Settings reads,
+        final AdaptiveConcurrencyLimiter.Settings writes,
+        final Duration retryAfter,
+        final MeterRegistry meterRegistry
+    ) {
+        this.reads = reads;
+        this.retryAfter = retryAfter;
+        this.meterRegistry = meterRegistry;
+        this.writes = new AdaptiveConcurrencyLimiter(writes);
+        registerGauges(this.writes, Tags.of("endpoint", ALL_WRITES, "budget", "write"));
+    }
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response, final Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        final String name = request.getMethod() + " " + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        final Endpoint endpoint = endpoints.computeIfAbsent(name, key -> register(key, isRead(request)));
+
+        switch (endpoint.limiter().acquire()) {
+            case ADMITTED -> {
+                request.setAttribute(LIMITER_ATTRIBUTE, endpoint.limiter());
+                request.setAttribute(ADMITTED_AT_ATTRIBUTE, System.nanoTime());
+                return true;
+            }
+            case QUEUE_FULL -> {
+                endpoint.queueFull().increment();
+                throw new AdmissionRejectedException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many requests are waiting for this endpoint. Retry later.", retryAfter);
+            }
+            case TIMED_OUT -> {
+                endpoint.timedOut().increment();
+                throw new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "The service is saturated. Retry later.", retryAfter);
+            }
+            default -> throw new IllegalStateException("Unknown admission outcome");
+        }
+    }
+
+    @Override
+    public void afterCompletion(
+        final HttpServletRequest request,
+        final HttpServletResponse response,
+        final Object handler,
+        final Exception ex
+    ) {
+        if (request.getAttribute(LIMITER_ATTRIBUTE) instanceof AdaptiveConcurrencyLimiter limiter) {
+            request.removeAttribute(LIMITER_ATTRIBUTE);
+            limiter.release(System.nanoTime() - (long) request.getAttribute(ADMITTED_AT_ATTRIBUTE));
+        }
+    }
+
+    private static boolean isRead(final HttpServletRequest request) {
+        final HttpMethod method = HttpMethod.valueOf(request.getMethod());
+        return method == HttpMethod.GET || method == HttpMethod.HEAD;
+    }
+
+    private Endpoint register(final String name, final boolean read) {
+        final Tags tags = Tags.of("endpoint", name, "budget", read ? "read" : "write");
+        final AdaptiveConcurrencyLimiter limiter;
+        if (read) {
+            limiter = new AdaptiveConcurrencyLimiter(reads);
+            registerGauges(limiter, tags);
+        } else {
+            limiter = writes;
+        }
+        return new Endpoint(limiter, rejections(tags, "queue-full"), rejections(tags, "timed-out"));
+    }
+
+    private void registerGauges(final AdaptiveConcurrencyLimiter limiter, final Tags tags) {
+        Gauge.builder("app.admission.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+            .description("Requests the budget currently admits at the same time")
+            .tags(tags)
+            .register(meterRegistry);
+        Gauge.builder("app.admission.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+            .description("Admitted requests that have not completed yet")
+            .tags(tags)
+            .register(meterRegistry);
+        Gauge.builder("app.admission.queued", limiter, AdaptiveConcurrencyLimiter::getQueued)
+            .description("Requests waiting for a slot")
+            .tags(tags)
+            .register(meterRegistry);
+    }
+
+    private Counter rejections(final Tags tags, final String reason) {
+        return Counter.builder("app.admission.rejections")
+            .description("Requests turned away by admission control")
+            .tags(tags.and("reason", reason))
+            .register(meterRegistry);
+    }
+
+    private record Endpoint(AdaptiveConcurrencyLimiter limiter, Counter queueFull, Counter timedOut) {
+    }
+}
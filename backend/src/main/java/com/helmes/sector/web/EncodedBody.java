@@ -0,0 +1,94 @@
+package com.helmes.sector.web;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A response body encoded once and kept together with its pre-compressed variant and strong ETag.
+ */
+public record EncodedBody(
+    byte[] identity,
+    byte[] gzip,
+    String etag
+) {
+
+    public static final String GZIP = "gzip";
+
+    private static final int ETAG_BYTES = 16;
+
+    public static EncodedBody of(final byte[] identity) {
+        return new EncodedBody(identity, gzip(identity), etag(identity));
+    }
+
+    /**
+     * Whether the gzip variant should be sent to a client with the given {@code Accept-Encoding} header.
+     */
+    public boolean prefersGzip(final String acceptEncoding) {
+        return acceptEncoding != null && gzip.length < identity.length && accepts(acceptEncoding, GZIP);
+    }
+
+    /**
+     * Each content coding gets its own strong ETag, as required for byte-for-byte different representations.
+     */
+    public String etag(final boolean gzipped) {
+        return gzipped ? "\"" + etag + "-" + GZIP + "\"" : "\"" + etag + "\"";
+    }
+
+    /**
+     * An explicitly listed coding takes precedence over {@code *}, which only applies to codings that are not
+     * listed (RFC 9110, section 12.5.3).
+     */
+    private static boolean accepts(final String acceptEncoding, final String coding) {
+        boolean wildcard = false;
+        for (final String part : acceptEncoding.split(",")) {
+            final String[] tokens = part.trim().split(";");
+            final String name = tokens[0].trim();
+            if (name.equalsIgnoreCase(coding)) {
+                return !isZeroQuality(tokens);
+            }
+            if ("*".equals(name)) {
+                wildcard = !isZeroQuality(tokens);
+            }
+        }
+        return wildcard;
+    }
+
+    private static boolean isZeroQuality(final String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            final String parameter = tokens[i].trim();
+            if (!parameter.startsWith("q=")) {
+                continue;
+            }
+            try {
+                return Double.parseDouble(parameter.substring(2)) == 0;
+            } catch (final NumberFormatException ex) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(final byte[] bytes) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(bytes.length / 4, 64));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    private static String etag(final byte[] bytes) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(digest, 0, ETAG_BYTES);
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
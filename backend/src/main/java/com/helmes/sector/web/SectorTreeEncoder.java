@@ -0,0 +1,83 @@
+package com.helmes.sector.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.helmes.sector.dto.FlatSectorTree;
+import com.helmes.sector.dto.SectorNode;
+import com.helmes.sector.service.SectorService;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serializes the sector tree once per taxonomy snapshot and format, and hands out the cached bytes afterwards.
+ *
+ * <p>The cache is keyed on the identity of the snapshot's root list, which only changes when
+ * {@link SectorService#reload()} swaps in a new taxonomy.
+ */
+@Component
+@RequiredArgsConstructor
+public class SectorTreeEncoder {
+
+    private static final ObjectMapper CBOR_MAPPER = new CBORMapper();
+
+    private final SectorService sectorService;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicReference<Cached> cached = new AtomicReference<>();
+
+    public EncodedBody encode(final SectorTreeFormat format) {
+        final List<SectorNode> tree = sectorService.getSectorTree();
+        Cached current = cached.get();
+        if (current == null || current.tree() != tree) {
+            current = new Cached(tree, new ConcurrentHashMap<>());
+            cached.set(current);
+        }
+        return current.bodies().computeIfAbsent(format, key -> EncodedBody.of(serialize(tree, key)));
+    }
+
+    private byte[] serialize(final List<SectorNode> tree, final SectorTreeFormat format) {
+        try {
+            return switch (format) {
+                case NESTED_JSON -> objectMapper.writeValueAsBytes(tree);
+                case FLAT_JSON -> objectMapper.writeValueAsBytes(flatten(tree));
+                case FLAT_CBOR -> CBOR_MAPPER.writeValueAsBytes(flatten(tree));
+            };
+        } catch (final JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize sector tree", ex);
+        }
+    }
+
+    static FlatSectorTree flatten(final List<SectorNode> tree) {
+        final List<SectorNode> nodes = new ArrayList<>();
+        final List<Integer> depths = new ArrayList<>();
+        final Deque<SectorNode> stack = new ArrayDeque<>(tree);
+        final Deque<Integer> stackDepths = new ArrayDeque<>();
+        tree.forEach(root -> stackDepths.addLast(0));
+        while (!stack.isEmpty()) {
+            final SectorNode node = stack.pop();
+            final int depth = stackDepths.pop();
+            nodes.add(node);
+            depths.add(depth);
+            for (final SectorNode child : node.children().reversed()) {
+                stack.push(child);
+                stackDepths.push(depth + 1);
+            }
+        }
+        return new FlatSectorTree(
+            nodes.stream().mapToLong(SectorNode::id).toArray(),
+            nodes.stream().map(SectorNode::name).toArray(String[]::new),
+            depths.stream().mapToInt(Integer::intValue).toArray()
+        );
+    }
+
+    private record Cached(List<SectorNode> tree, Map<SectorTreeFormat, EncodedBody> bodies) {
+    }
+}
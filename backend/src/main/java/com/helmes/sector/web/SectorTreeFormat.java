@@ -0,0 +1,71 @@
+package com.helmes.sector.web;
+
+import java.util.Comparator;
+import java.util.List;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+/**
+ * Representations of the sector tree, chosen through the {@code Accept} header.
+ */
+public enum SectorTreeFormat {
+
+    /** The nested {@code SectorNode} JSON; the default. */
+    NESTED_JSON(MediaType.APPLICATION_JSON),
+
+    /** {@code FlatSectorTree} as JSON. */
+    FLAT_JSON(MediaType.parseMediaType(SectorTreeFormat.FLAT_JSON_VALUE)),
+
+    /** {@code FlatSectorTree} as CBOR. */
+    FLAT_CBOR(MediaType.parseMediaType(SectorTreeFormat.FLAT_CBOR_VALUE));
+
+    public static final String FLAT_JSON_VALUE = "application/vnd.helmes.sectors.flat+json";
+    public static final String FLAT_CBOR_VALUE = "application/vnd.helmes.sectors.flat+cbor";
+
+    private static final Comparator<MediaType> SPECIFICITY = Comparator
+        .comparing((MediaType range) -> !range.isWildcardType())
+        .thenComparing(range -> !range.isWildcardSubtype())
+        .thenComparingInt(range -> range.getParameters().size() - (range.getParameters().containsKey("q") ? 1 : 0));
+
+    private final MediaType mediaType;
+
+    SectorTreeFormat(final MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * The acceptable format with the highest quality, where each format takes the quality of the most specific
+     * range that matches it (RFC 9110 §12.5.1), so {@code application/json;q=0} excludes nested JSON even when
+     * a full wildcard accepts everything else. Ties go to the earlier format. A missing or unparsable header, or one that accepts no
+     * format, selects {@link #NESTED_JSON}.
+     */
+    public static SectorTreeFormat negotiate(final String accept) {
+        if (accept == null || accept.isBlank()) {
+            return NESTED_JSON;
+        }
+        final List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (final InvalidMediaTypeException ex) {
+            return NESTED_JSON;
+        }
+        SectorTreeFormat best = NESTED_JSON;
+        double bestQuality = 0;
+        for (final SectorTreeFormat format : values()) {
+            final double quality = accepted.stream()
+                .filter(range -> range.includes(format.mediaType))
+                .max(SPECIFICITY)
+                .map(MediaType::getQualityValue)
+                .orElse(0.0);
+            if (quality > bestQuality) {
+                best = format;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,41 @@
+-- Every (ancestor, descendant) pair of the sector hierarchy, including each sector paired with itself at
+-- depth 0, so subtree lookups are a single indexed join instead of a recursive walk.
+CREATE TABLE sector_closure (
+    ancestor_id   BIGINT  NOT NULL REFERENCES sectors(id) ON DELETE CASCADE,
+    descendant_id BIGINT  NOT NULL REFERENCES sectors(id) ON DELETE CASCADE,
+    depth         INTEGER NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id)
+);
+
+CREATE INDEX idx_sector_closure_descendant_id ON sector_closure(descendant_id);
+
+-- The taxonomy is small and rarely edited, so the closure is rebuilt as a whole rather than patched.
+CREATE FUNCTION rebuild_sector_closure() RETURNS VOID AS $$
+BEGIN
+    LOCK TABLE sector_closure IN EXCLUSIVE MODE;
+    DELETE FROM sector_closure;
+    INSERT INTO sector_closure (ancestor_id, descendant_id, depth)
+    WITH RECURSIVE walk(ancestor_id, descendant_id, depth) AS (
+        SELECT id, id, 0 FROM sectors
+        UNION ALL
+        SELECT w.ancestor_id, s.id, w.depth + 1
+        FROM walk w
+        JOIN sectors s ON s.parent_id = w.descendant_id
+    )
+    SELECT ancestor_id, descendant_id, depth FROM walk;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION sectors_changed() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM rebuild_sector_closure();
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_sectors_rebuild_closure
+    AFTER INSERT OR DELETE OR UPDATE OF id, parent_id ON sectors
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION sectors_changed();
+
+SELECT rebuild_sector_closure();
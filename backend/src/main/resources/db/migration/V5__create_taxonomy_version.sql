@@ -0,0 +1,24 @@
+-- A single counter that moves on every change to sectors, so nodes holding the taxonomy in memory can tell
+-- whether their copy is current. Each change also notifies the taxonomy_changed channel with the new
+-- version; Postgres delivers it when the transaction commits and drops it on rollback.
+CREATE TABLE taxonomy_version (
+    id      BOOLEAN PRIMARY KEY DEFAULT TRUE CHECK (id),
+    version BIGINT  NOT NULL
+);
+
+INSERT INTO taxonomy_version (version) VALUES (1);
+
+CREATE FUNCTION bump_taxonomy_version() RETURNS TRIGGER AS $$
+DECLARE
+    next_version BIGINT;
+BEGIN
+    UPDATE taxonomy_version SET version = version + 1 RETURNING version INTO next_version;
+    PERFORM pg_notify('taxonomy_changed', next_version::TEXT);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_sectors_bump_taxonomy_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON sectors
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION bump_taxonomy_version();
@@ -0,0 +1,8 @@
+-- TRUNCATE fires no INSERT, UPDATE or DELETE trigger, so the closure trigger from V4 is recreated to cover it as
+-- well, as trg_sectors_bump_taxonomy_version already does.
+DROP TRIGGER trg_sectors_rebuild_closure ON sectors;
+
+CREATE TRIGGER trg_sectors_rebuild_closure
+    AFTER INSERT OR DELETE OR UPDATE OF id, parent_id OR TRUNCATE ON sectors
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION sectors_changed();
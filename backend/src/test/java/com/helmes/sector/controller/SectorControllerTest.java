@@ -1,21 +1,45 @@
 package com.helmes.sector.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.matchesPattern;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.helmes.sector.dto.FlatSectorTree;
 import com.helmes.sector.dto.SectorNode;
+import com.helmes.sector.dto.SectorSearchHit;
+import com.helmes.sector.dto.SectorSelectionCount;
+import com.helmes.sector.service.SectorSelectionCounter;
 import com.helmes.sector.service.SectorService;
+import com.helmes.sector.web.SectorTreeEncoder;
+import com.helmes.sector.web.SectorTreeFormat;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 @WebMvcTest(SectorController.class)
+@Import(SectorTreeEncoder.class)
 @DisplayName("SectorController tests")
 class SectorControllerTest {
 
@@ -25,6 +49,9 @@ class SectorControllerTest {
     @MockitoBean
     private SectorService sectorService;
 
+    @MockitoBean
+    private SectorSelectionCounter selectionCounter;
+
     @Test
     @DisplayName("GET /api/v1/sectors should return the sector tree")
     void getSectors() throws Exception {
@@ -68,4 +95,154 @@ class SectorControllerTest {
             .andExpect(status().isOk())
             .andExpect(jsonPath("$").isEmpty());
     }
+
+    @Test
+    @DisplayName("GET /api/v1/sectors should send a strong ETag and cache policy")
+    void getSectors_etag() throws Exception {
+        when(sectorService.getSectorTree()).thenReturn(buildTree());
+
+        mockMvc.perform(get("/api/v1/sectors"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, matchesPattern("\"[0-9a-f]{32}\"")))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, must-revalidate, public"))
+            .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(containsString(HttpHeaders.ACCEPT_ENCODING))));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/sectors should return 304 when If-None-Match matches")
+    void getSectors_notModified() throws Exception {
+        when(sectorService.getSectorTree()).thenReturn(buildTree());
+
+        final String etag = mockMvc.perform(get("/api/v1/sectors"))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/sectors").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/sectors should serve the gzip variant when accepted")
+    void getSectors_gzip() throws Exception {
+        when(sectorService.getSectorTree()).thenReturn(buildTree());
+
+        final MvcResult result = mockMvc.perform(get("/api/v1/sectors").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andExpect(header().string(HttpHeaders.ETAG, endsWith("-gzip\"")))
+            .andReturn();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).contains("\"name\":\"Manufacturing\"");
+        }
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/sectors should serve the flattened JSON tree when asked for it")
+    void getSectors_flatJson() throws Exception {
+        when(sectorService.getSectorTree()).thenReturn(buildNestedTree());
+
+        mockMvc.perform(get("/api/v1/sectors").accept(SectorTreeFormat.FLAT_JSON_VALUE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(SectorTreeFormat.FLAT_JSON_VALUE))
+            .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(matchesPattern("Accept(,.*)?"))))
+            .andExpect(jsonPath("$.ids").value(contains(1, 19, 2)))
+            .andExpect(jsonPath("$.names[1]").value("Construction materials"))
+            .andExpect(jsonPath("$.depths").value(contains(0, 1, 0)));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/sectors should serve the flattened tree as CBOR with its own ETag")
+    void getSectors_flatCbor() throws Exception {
+        when(sectorService.getSectorTree()).thenReturn(buildNestedTree());
+
+        final MvcResult json = mockMvc.perform(get("/api/v1/sectors").accept(SectorTreeFormat.FLAT_JSON_VALUE)).andReturn();
+        final MvcResult cbor = mockMvc.perform(get("/api/v1/sectors").accept(SectorTreeFormat.FLAT_CBOR_VALUE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(SectorTreeFormat.FLAT_CBOR_VALUE))
+            .andReturn();
+
+        final FlatSectorTree decoded = new CBORMapper().readValue(cbor.getResponse().getContentAsByteArray(), FlatSectorTree.class);
+        assertThat(decoded.ids()).containsExactly(1L, 19L, 2L);
+        assertThat(decoded.names()).containsExactly("Manufacturing", "Construction materials", "Service");
+        assertThat(decoded.depths()).containsExactly(0, 1, 0);
+        assertThat(cbor.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(json.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/sectors should keep nested JSON as the default for wildcards")
+    void getSectors_defaultsToNestedJson() throws Exception {
+        when(sectorService.getSectorTree()).thenReturn(buildNestedTree());
+
+        mockMvc.perform(get("/api/v1/sectors").accept("text/html", "*/*;q=0.8"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(jsonPath("$[0].children[0].id").value(19));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/sectors should fall back to nested JSON when Accept matches no format")
+    void getSectors_unsatisfiableAccept() throws Exception {
+        when(sectorService.getSectorTree()).thenReturn(buildNestedTree());
+
+        mockMvc.perform(get("/api/v1/sectors").accept(MediaType.TEXT_HTML))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(jsonPath("$[0].children[0].id").value(19));
+    }
+
+    @Test
+    @DisplayName("GET /search should return hits with their ancestor path")
+    void search() throws Exception {
+        when(sectorService.search("bak", 20)).thenReturn(List.of(SectorSearchHit.builder()
+            .id(342L)
+            .name("Bakery & confectionery products")
+            .path(List.of(new SectorSearchHit.Ancestor(1L, "Manufacturing"), new SectorSearchHit.Ancestor(6L, "Food and Beverage")))
+            .build()));
+
+        mockMvc.perform(get("/api/v1/sectors/search").param("q", "bak"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(342))
+            .andExpect(jsonPath("$[0].path[0].name").value("Manufacturing"))
+            .andExpect(jsonPath("$[0].path[1].id").value(6));
+    }
+
+    @Test
+    @DisplayName("GET /selection-counts should return the in-memory counts")
+    void getSelectionCounts() throws Exception {
+        when(selectionCounter.snapshot()).thenReturn(List.of(
+            new SectorSelectionCount(1L, 2, 5),
+            new SectorSelectionCount(19L, 3, 3)
+        ));
+
+        mockMvc.perform(get("/api/v1/sectors/selection-counts"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].sectorId").value(1))
+            .andExpect(jsonPath("$[0].direct").value(2))
+            .andExpect(jsonPath("$[0].rolledUp").value(5))
+            .andExpect(jsonPath("$[1].sectorId").value(19));
+    }
+
+    private List<SectorNode> buildNestedTree() {
+        return List.of(
+            SectorNode.builder()
+                .id(1L)
+                .name("Manufacturing")
+                .children(List.of(SectorNode.builder().id(19L).name("Construction materials").children(List.of()).build()))
+                .build(),
+            SectorNode.builder().id(2L).name("Service").children(List.of()).build()
+        );
+    }
+
+    private List<SectorNode> buildTree() {
+        return List.of(
+            SectorNode.builder()
+                .id(1L)
+                .name("Manufacturing")
+                .children(LongStream.rangeClosed(100L, 120L)
+                    .mapToObj(id -> SectorNode.builder().id(id).name("Sector " + id).children(List.of()).build())
+                    .toList())
+                .build()
+        );
+    }
 }
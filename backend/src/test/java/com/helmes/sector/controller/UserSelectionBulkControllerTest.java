@@ -0,0 +1,153 @@
+package com.helmes.sector.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.helmes.sector.dto.ImportReport;
+import com.helmes.sector.service.UserSelectionExportService;
+import com.helmes.sector.service.UserSelectionImportService;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(
+    value = UserSelectionBulkController.class,
+    properties = "app.bulk.admin-token=" + UserSelectionBulkControllerTest.ADMIN_TOKEN
+)
+@DisplayName("UserSelectionBulkController tests")
+class UserSelectionBulkControllerTest {
+
+    static final String ADMIN_TOKEN = "test-admin-token";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private UserSelectionImportService importService;
+
+    @MockitoBean
+    private UserSelectionExportService exportService;
+
+    @Test
+    @DisplayName("POST /import should stream NDJSON with the default batch size")
+    void importNdjson() throws Exception {
+        when(importService.importNdjson(any(), eq(500))).thenReturn(buildReport());
+
+        mockMvc.perform(post("/api/v1/user-selections/import")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + ADMIN_TOKEN)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{}\n"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rowsImported").value(3))
+            .andExpect(jsonPath("$.errors[0].row").value(2));
+    }
+
+    @Test
+    @DisplayName("POST /import should stream CSV with an explicit batch size")
+    void importCsv() throws Exception {
+        when(importService.importCsv(any(), eq(100))).thenReturn(buildReport());
+
+        mockMvc.perform(post("/api/v1/user-selections/import")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + ADMIN_TOKEN)
+                .param("batchSize", "100")
+                .contentType("text/csv")
+                .content("sessionId,name,sectorIds,agreeToTerms\n"))
+            .andExpect(status().isOk());
+
+        verify(importService).importCsv(any(), eq(100));
+    }
+
+    @Test
+    @DisplayName("POST /import should return 415 for other content types")
+    void unsupportedMediaType() throws Exception {
+        mockMvc.perform(post("/api/v1/user-selections/import")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + ADMIN_TOKEN)
+                .contentType(MediaType.APPLICATION_XML)
+                .content("<rows/>"))
+            .andExpect(status().isUnsupportedMediaType());
+    }
+
+    @Test
+    @DisplayName("POST /import should return 401 without the admin token")
+    void importWithoutToken() throws Exception {
+        mockMvc.perform(post("/api/v1/user-selections/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{}\n"))
+            .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(importService);
+    }
+
+    @Test
+    @DisplayName("GET /export should stream NDJSON as an attachment")
+    void exportNdjson() throws Exception {
+        when(exportService.exportNdjson(any(), isNull())).thenAnswer(invocation -> {
+            final OutputStream out = invocation.getArgument(0);
+            out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        mockMvc.perform(get("/api/v1/user-selections/export")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + ADMIN_TOKEN)
+                .accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"user-selections.ndjson\""))
+            .andExpect(content().string("{\"id\":1}\n"));
+    }
+
+    @Test
+    @DisplayName("GET /export should stream CSV for a sector subtree")
+    void exportCsv() throws Exception {
+        mockMvc.perform(get("/api/v1/user-selections/export")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + ADMIN_TOKEN)
+                .param("sectorId", "2")
+                .accept("text/csv"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("text/csv"));
+
+        verify(exportService).exportCsv(any(), eq(2L));
+    }
+
+    @Test
+    @DisplayName("GET /export should return 401 without the admin token")
+    void exportWithoutToken() throws Exception {
+        mockMvc.perform(get("/api/v1/user-selections/export").accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(status().isUnauthorized())
+            .andExpect(header().string(HttpHeaders.WWW_AUTHENTICATE, "Bearer"));
+        mockMvc.perform(get("/api/v1/user-selections/export")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer wrong")
+                .accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(exportService);
+    }
+
+    private ImportReport buildReport() {
+        return ImportReport.builder()
+            .rowsRead(4)
+            .rowsImported(3)
+            .rowsRejected(1)
+            .batches(1)
+            .errors(List.of(new ImportReport.RowError(2, "Name is required")))
+            .build();
+    }
+}
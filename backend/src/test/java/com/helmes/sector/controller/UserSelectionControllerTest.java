@@ -2,6 +2,8 @@ package com.helmes.sector.controller;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -9,15 +11,16 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.helmes.sector.dto.SectorIds;
 import com.helmes.sector.dto.UserSelectionResponse;
 import com.helmes.sector.service.UserSelectionService;
 import java.time.LocalDateTime;
 import java.util.Optional;
-import java.util.Set;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpSession;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -85,6 +88,18 @@ class UserSelectionControllerTest {
             .andExpect(jsonPath("$.errors.agreeToTerms").value("You must agree to the terms"));
     }
 
+    @Test
+    @DisplayName("POST should return 400 for a name longer than its column")
+    void create_nameTooLong() throws Exception {
+        mockMvc.perform(post("/api/v1/user-selections")
+                .session(session)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"name":"%s","sectorIds":[1],"agreeToTerms":true}""".formatted("n".repeat(256))))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.errors.name").value("Name must be at most 255 characters"));
+    }
+
     @Test
     @DisplayName("POST should return 409 when selection already exists")
     void create_conflict() throws Exception {
@@ -100,12 +115,12 @@ class UserSelectionControllerTest {
     }
 
     @Test
-    @DisplayName("PUT /me should update selection")
+    @DisplayName("PUT /me with If-Match: * should update selection")
     void update_success() throws Exception {
         final UserSelectionResponse updated = UserSelectionResponse.builder()
             .id(1L)
             .name("Jane")
-            .sectorIds(Set.of(2L))
+            .sectorIds(SectorIds.of(2L))
             .agreeToTerms(true)
             .createdAt(LocalDateTime.now())
             .updatedAt(LocalDateTime.now())
@@ -115,6 +130,7 @@ class UserSelectionControllerTest {
 
         mockMvc.perform(put("/api/v1/user-selections/me")
                 .session(session)
+                .header(HttpHeaders.IF_MATCH, "*")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content("""
                     {"name":"Jane","sectorIds":[2],"agreeToTerms":true}"""))
@@ -123,19 +139,48 @@ class UserSelectionControllerTest {
     }
 
     @Test
-    @DisplayName("PUT /me should return 409 when no selection exists")
+    @DisplayName("PUT /me with If-Match: * should return 409 when no selection exists")
     void update_notFound() throws Exception {
         when(userSelectionService.update(eq(session.getId()), any()))
             .thenThrow(new IllegalStateException("No selection found"));
 
         mockMvc.perform(put("/api/v1/user-selections/me")
                 .session(session)
+                .header(HttpHeaders.IF_MATCH, "*")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content("""
                     {"name":"Jane","sectorIds":[1],"agreeToTerms":true}"""))
             .andExpect(status().isConflict());
     }
 
+    @Test
+    @DisplayName("PUT /me should upsert selection")
+    void upsert_success() throws Exception {
+        when(userSelectionService.upsert(eq(session.getId()), any())).thenReturn(buildResponse());
+
+        mockMvc.perform(put("/api/v1/user-selections/me")
+                .session(session)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"name":"John","sectorIds":[1,28],"agreeToTerms":true}"""))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value("John"));
+
+        verify(userSelectionService, never()).update(any(), any());
+    }
+
+    @Test
+    @DisplayName("PUT /me should return 400 on validation failure")
+    void upsert_validationFailure() throws Exception {
+        mockMvc.perform(put("/api/v1/user-selections/me")
+                .session(session)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"name":"","sectorIds":[],"agreeToTerms":true}"""))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.errors.name").value("Name is required"));
+    }
+
     @Test
     @DisplayName("POST should return 400 for invalid sector IDs")
     void create_invalidSectors() throws Exception {
@@ -154,7 +199,7 @@ class UserSelectionControllerTest {
         return UserSelectionResponse.builder()
             .id(1L)
             .name("John")
-            .sectorIds(Set.of(1L, 28L))
+            .sectorIds(SectorIds.of(1L, 28L))
             .agreeToTerms(true)
             .createdAt(LocalDateTime.now())
             .updatedAt(LocalDateTime.now())
@@ -0,0 +1,119 @@
+package com.helmes.sector.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("SectorIds unit tests")
+class SectorIdsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Nested
+    @DisplayName("of")
+    class Of {
+
+        @Test
+        @DisplayName("should sort the ids and drop duplicates")
+        void sortsAndDeduplicates() {
+            final SectorIds ids = SectorIds.of(19L, 1L, 19L, 7L);
+
+            assertThat(ids.toArray()).containsExactly(1L, 7L, 19L);
+            assertThat(ids.contains(7L)).isTrue();
+            assertThat(ids.contains(8L)).isFalse();
+            assertThat(ids.indexOf(19L)).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("should not share the array it was created from")
+        void copiesInput() {
+            final long[] values = {2L, 1L};
+
+            final SectorIds ids = SectorIds.of(values);
+            values[0] = 5L;
+
+            assertThat(ids.toArray()).containsExactly(1L, 2L);
+        }
+
+        @Test
+        @DisplayName("should equal another instance with the same ids in any order")
+        void equality() {
+            assertThat(SectorIds.of(new Long[] {3L, 1L}))
+                .isEqualTo(SectorIds.of(1L, 3L))
+                .hasSameHashCodeAs(SectorIds.of(1L, 3L));
+            assertThat(SectorIds.of()).isSameAs(SectorIds.empty());
+        }
+    }
+
+    @Nested
+    @DisplayName("JSON")
+    class Json {
+
+        @Test
+        @DisplayName("should write a plain array of numbers in ascending order")
+        void serialize() throws Exception {
+            assertThat(objectMapper.writeValueAsString(SectorIds.of(28L, 1L))).isEqualTo("[1,28]");
+            assertThat(objectMapper.writeValueAsString(SectorIds.empty())).isEqualTo("[]");
+        }
+
+        @Test
+        @DisplayName("should read an array of numbers, dropping duplicates")
+        void deserialize() throws Exception {
+            final SectorIds ids = objectMapper.readValue("[28, 1, 28, 3, 4, 5, 6, 7, 8, 9, 10]", SectorIds.class);
+
+            assertThat(ids.toArray()).containsExactly(1L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 28L);
+        }
+
+        @Test
+        @DisplayName("should coerce numeric strings like a Long")
+        void deserializeString() throws Exception {
+            assertThat(objectMapper.readValue("[\"7\"]", SectorIds.class)).isEqualTo(SectorIds.of(7L));
+        }
+
+        @Test
+        @DisplayName("should reject null ids and non-array values")
+        void rejectInvalid() {
+            assertThatThrownBy(() -> objectMapper.readValue("[1, null]", SectorIds.class))
+                .isInstanceOf(MismatchedInputException.class);
+            assertThatThrownBy(() -> objectMapper.readValue("1", SectorIds.class))
+                .isInstanceOf(MismatchedInputException.class);
+        }
+
+        @Test
+        @DisplayName("should round-trip the request body")
+        void roundTrip() throws Exception {
+            final String json = "{\"name\":\"John\",\"sectorIds\":[1,28],\"agreeToTerms\":true}";
+
+            final UserSelectionRequest request = objectMapper.readValue(json, UserSelectionRequest.class);
+
+            assertThat(request.sectorIds()).containsExactly(1L, 28L);
+            assertThat(objectMapper.writeValueAsString(request)).isEqualTo(json);
+        }
+    }
+
+    @Nested
+    @DisplayName("@NotEmpty")
+    class NotEmptyValidation {
+
+        private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+        @Test
+        @DisplayName("should reject missing and empty sector ids")
+        void rejectsEmpty() {
+            assertThat(validator.validate(request(null))).hasSize(1);
+            assertThat(validator.validate(request(SectorIds.empty()))).hasSize(1);
+            assertThat(validator.validate(request(SectorIds.of(1L)))).isEmpty();
+        }
+
+        private static UserSelectionRequest request(final SectorIds sectorIds) {
+            return UserSelectionRequest.builder().name("John").sectorIds(sectorIds).agreeToTerms(true).build();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.helmes.sector.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.helmes.sector.monitoring.StatementCounter;
+import com.helmes.sector.service.SectorSelectionCounter;
+import com.helmes.sector.service.SectorService;
+import com.helmes.sector.support.EmbeddedDatabase;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Fills a dedicated database with a large synthetic taxonomy and selection table, then runs each scenario of
+ * the request mix below against it and writes the results to {@code target/load-test/large-dataset.json}.
+ *
+ * <p>Sized with {@code -Dload.sectors} (default 100,000), {@code -Dload.fan-out} (6, which makes 7 levels),
+ * {@code -Dload.selections} (1,000,000) and {@code -Dload.sectors-per-selection} (3). The runs are tuned with
+ * {@code -Dload.users}, {@code -Dload.duration} and {@code -Dload.warmup}. Every scenario reports throughput,
+ * latency percentiles and the SQL statements it caused per request.
+ */
+@Tag("load")
+@DisplayName("Large dataset load test")
+class LargeDatasetLoadTest {
+
+    private static final int SECTORS = Integer.getInteger("load.sectors", 100_000);
+    private static final int FAN_OUT = Integer.getInteger("load.fan-out", 6);
+    private static final int SELECTIONS = Integer.getInteger("load.selections", 1_000_000);
+    private static final int SECTORS_PER_SELECTION = Integer.getInteger("load.sectors-per-selection", 3);
+    private static final int USERS = Integer.getInteger("load.users", 200);
+    private static final Duration WARMUP = Duration.parse("PT" + System.getProperty("load.warmup", "5s"));
+    private static final Duration DURATION = Duration.parse("PT" + System.getProperty("load.duration", "20s"));
+
+    @Test
+    @DisplayName("run the request mix scenarios against a large taxonomy and selection table")
+    void runScenarios() throws Exception {
+        final Map<String, Object> properties = new HashMap<>(EmbeddedDatabase.datasourceProperties("large_dataset"));
+        properties.put("server.port", 0);
+        properties.put("spring.datasource.hikari.maximum-pool-size", 20);
+        // The scheduled recount is timed once below instead of landing in the middle of a scenario.
+        properties.put("app.selection-counts.reconcile-interval", "24h");
+        properties.put("logging.level.com.helmes", "INFO");
+        properties.put("logging.level.org.hibernate.SQL", "WARN");
+
+        try (ConfigurableApplicationContext context = LoadTestApplication.start(properties)) {
+            final SyntheticDataset dataset = SyntheticDataset.generate(
+                context.getBean(JdbcTemplate.class), SECTORS, FAN_OUT, SELECTIONS, SECTORS_PER_SELECTION);
+            final Map<String, Object> report = new LinkedHashMap<>();
+            report.put("dataset", dataset);
+            report.put("taxonomyReloadMillis", timeMillis(() -> context.getBean(SectorService.class).reload()));
+            report.put("selectionCountsReconcileMillis", timeMillis(() -> context.getBean(SectorSelectionCounter.class).reconcile()));
+
+            final String port = context.getEnvironment().getRequiredProperty("local.server.port");
+            final LoadDriver driver = new LoadDriver(URI.create("http://localhost:" + port));
+            final Map<String, LoadResult> results = new LinkedHashMap<>();
+            for (final Map.Entry<String, LoadDriver.Scenario> scenario : scenarios(dataset).entrySet()) {
+                results.put(scenario.getKey(),
+                    driver.run(scenario.getKey(), USERS, WARMUP, DURATION, scenario.getValue(), StatementCounter::total));
+            }
+            report.put("scenarios", results);
+
+            System.out.println(dataset);
+            results.values().forEach(result -> System.out.println(result.summary()));
+            final Path file = Path.of("target", "load-test", "large-dataset.json");
+            Files.createDirectories(file.getParent());
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+
+            assertThat(results.values()).allSatisfy(result -> assertThat(result.requests()).isPositive());
+        }
+    }
+
+    /**
+     * The scenarios in the order they run. Sessions carry over between steps of a user, not between scenarios.
+     */
+    private static Map<String, LoadDriver.Scenario> scenarios(final SyntheticDataset dataset) {
+        final Map<String, LoadDriver.Scenario> scenarios = new LinkedHashMap<>();
+
+        // Every step is a new visitor who loads the form and saves once.
+        scenarios.put("first-visits", (user, random) -> {
+            user.resetSession();
+            user.get("/api/v1/sectors", "Accept-Encoding", "gzip");
+            user.get("/api/v1/user-selections/me");
+            user.post("/api/v1/user-selections", selectionJson(dataset, random));
+        });
+
+        // Returning users who mostly reload their saved form.
+        scenarios.put("returning-users", (user, random) -> {
+            if (!user.hasSession()) {
+                user.put("/api/v1/user-selections/me", selectionJson(dataset, random));
+                return;
+            }
+            final int roll = random.nextInt(100);
+            if (roll < 80) {
+                user.get("/api/v1/user-selections/me");
+            } else if (roll < 90) {
+                user.put("/api/v1/user-selections/me", selectionJson(dataset, random));
+            } else {
+                user.get("/api/v1/sectors", "Accept-Encoding", "gzip");
+            }
+        });
+
+        // Users editing their selection, saving after most changes.
+        scenarios.put("editing", (user, random) -> {
+            if (random.nextInt(100) < 60) {
+                user.put("/api/v1/user-selections/me", selectionJson(dataset, random));
+            } else {
+                user.get("/api/v1/user-selections/me");
+            }
+        });
+
+        // Only the sector tree, uncompressed, to see the cost of the large payload itself.
+        scenarios.put("sector-tree", (user, random) -> user.get("/api/v1/sectors"));
+
+        return scenarios;
+    }
+
+    private static String selectionJson(final SyntheticDataset dataset, final Random random) {
+        final StringBuilder ids = new StringBuilder();
+        final int count = 1 + random.nextInt(SECTORS_PER_SELECTION);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                ids.append(',');
+            }
+            ids.append(dataset.randomSectorId(random));
+        }
+        return "{\"name\":\"Load User\",\"sectorIds\":[" + ids + "],\"agreeToTerms\":true}";
+    }
+
+    private static long timeMillis(final Runnable action) {
+        final long start = System.nanoTime();
+        action.run();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -0,0 +1,176 @@
+package com.helmes.sector.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongSupplier;
+
+/**
+ * Closed-loop HTTP load generator. Every virtual user runs on its own virtual thread, keeps its own
+ * session cookie and issues the next request as soon as the previous one has completed. A user whose request
+ * is shed with 429 or 503 waits for its {@code Retry-After} first, like a well-behaved client.
+ */
+final class LoadDriver {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .build();
+
+    private final URI baseUri;
+
+    LoadDriver(final URI baseUri) {
+        this.baseUri = baseUri;
+    }
+
+    /**
+     * One step of a user's session; called in a loop until the run is over.
+     */
+    @FunctionalInterface
+    interface Scenario {
+
+        void step(VirtualUser user, Random random) throws Exception;
+    }
+
+    /**
+     * Runs {@code users} virtual users through {@code scenario}. {@code statementCount} is read when the
+     * warmup ends and again at the end, to report the SQL statements the measured requests caused.
+     */
+    LoadResult run(final String name, final int users, final Duration warmup, final Duration duration,
+                   final Scenario scenario, final LongSupplier statementCount) throws Exception {
+        final long start = System.nanoTime();
+        final long measureFrom = start + warmup.toNanos();
+        final long stopAt = measureFrom + duration.toNanos();
+
+        final List<VirtualUser> virtualUsers = new ArrayList<>(users);
+        final long statementsBefore;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final List<Future<?>> futures = new ArrayList<>(users);
+            for (int i = 0; i < users; i++) {
+                final VirtualUser user = new VirtualUser(measureFrom);
+                final Random random = new Random(i);
+                virtualUsers.add(user);
+                futures.add(executor.submit(() -> {
+                    while (System.nanoTime() < stopAt) {
+                        scenario.step(user, random);
+                    }
+                    return null;
+                }));
+            }
+            // Read on this platform thread, which the virtual users cannot crowd out of the scheduler.
+            Thread.sleep(Duration.ofNanos(Math.max(0, measureFrom - System.nanoTime())));
+            statementsBefore = statementCount.getAsLong();
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        final long[] latencies = virtualUsers.stream()
+            .flatMapToLong(user -> Arrays.stream(user.latencies, 0, user.count))
+            .toArray();
+        final long errors = virtualUsers.stream().mapToLong(user -> user.errors).sum();
+        final long shed = virtualUsers.stream().mapToLong(user -> user.shed).sum();
+        final long statements = statementCount.getAsLong() - statementsBefore;
+        return LoadResult.of(name, latencies, errors, shed, statements, duration);
+    }
+
+    /**
+     * A simulated browser: one session cookie and its own latency samples, so users never contend.
+     */
+    final class VirtualUser {
+
+        private final long measureFrom;
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+        private long shed;
+        private String sessionCookie;
+
+        private VirtualUser(final long measureFrom) {
+            this.measureFrom = measureFrom;
+        }
+
+        boolean hasSession() {
+            return sessionCookie != null;
+        }
+
+        void resetSession() {
+            sessionCookie = null;
+        }
+
+        /**
+         * Sends a GET with extra headers given as name and value pairs.
+         */
+        int get(final String path, final String... headers) throws Exception {
+            final HttpRequest.Builder builder = request(path).GET();
+            for (int i = 0; i + 1 < headers.length; i += 2) {
+                builder.header(headers[i], headers[i + 1]);
+            }
+            return send(builder);
+        }
+
+        int post(final String path, final String json) throws Exception {
+            return send(request(path).header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(json)));
+        }
+
+        int put(final String path, final String json) throws Exception {
+            return send(request(path).header("Content-Type", "application/json").PUT(HttpRequest.BodyPublishers.ofString(json)));
+        }
+
+        private HttpRequest.Builder request(final String path) {
+            final HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path)).timeout(REQUEST_TIMEOUT);
+            if (sessionCookie != null) {
+                builder.header("Cookie", sessionCookie);
+            }
+            return builder;
+        }
+
+        private int send(final HttpRequest.Builder builder) throws Exception {
+            final long begin = System.nanoTime();
+            int status;
+            long retryAfterSeconds = 0;
+            try {
+                final HttpResponse<byte[]> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+                status = response.statusCode();
+                response.headers().firstValue("Set-Cookie")
+                    .map(cookie -> cookie.split(";", 2)[0])
+                    .ifPresent(cookie -> sessionCookie = cookie);
+                retryAfterSeconds = response.headers().firstValueAsLong("Retry-After").orElse(0);
+            } catch (final IOException ex) {
+                status = -1;
+            }
+            final long end = System.nanoTime();
+
+            if ((status == 429 || status == 503) && retryAfterSeconds > 0) {
+                if (begin >= measureFrom) {
+                    shed++;
+                }
+                Thread.sleep(Duration.ofSeconds(retryAfterSeconds));
+                return status;
+            }
+            if (begin >= measureFrom) {
+                if (status < 200 || status >= 300) {
+                    errors++;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = end - begin;
+            }
+            return status;
+        }
+    }
+}
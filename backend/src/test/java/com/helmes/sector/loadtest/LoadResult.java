@@ -0,0 +1,62 @@
+package com.helmes.sector.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Throughput, latency percentiles and SQL statement count of one measured load run. Requests shed by admission
+ * control are counted in {@code shed} only, not in {@code requests}, {@code errors} or the latencies.
+ */
+record LoadResult(
+    String name,
+    long requests,
+    long errors,
+    long shed,
+    double throughputPerSecond,
+    double p50Millis,
+    double p95Millis,
+    double p99Millis,
+    double maxMillis,
+    long statements,
+    double statementsPerRequest
+) {
+
+    static LoadResult of(
+        final String name,
+        final long[] latenciesNanos,
+        final long errors,
+        final long shed,
+        final long statements,
+        final Duration elapsed
+    ) {
+        final long[] sorted = latenciesNanos.clone();
+        Arrays.sort(sorted);
+        return new LoadResult(
+            name,
+            sorted.length,
+            errors,
+            shed,
+            sorted.length / (elapsed.toNanos() / 1e9),
+            percentile(sorted, 0.50),
+            percentile(sorted, 0.95),
+            percentile(sorted, 0.99),
+            sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6,
+            statements,
+            sorted.length == 0 ? 0 : (double) statements / sorted.length
+        );
+    }
+
+    private static double percentile(final long[] sorted, final double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        final int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    String summary() {
+        return String.format("%-28s %9d req %6d err %6d shed %10.1f req/s   p50 %7.2f ms   p95 %7.2f ms   p99 %7.2f ms   max %8.2f ms"
+                + "   %6.2f stmt/req",
+            name, requests, errors, shed, throughputPerSecond, p50Millis, p95Millis, p99Millis, maxMillis, statementsPerRequest);
+    }
+}
@@ -0,0 +1,26 @@
+package com.helmes.sector.loadtest;
+
+import com.helmes.sector.SectorSelectionApplication;
+import java.util.Map;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the application in-process for a load run.
+ */
+final class LoadTestApplication {
+
+    private LoadTestApplication() {
+    }
+
+    /**
+     * Passes {@code properties} as command-line arguments, so they win over {@code application.yml}; default
+     * properties would not override the datasource URL or server port configured there.
+     */
+    static ConfigurableApplicationContext start(final Map<String, Object> properties) {
+        final String[] arguments = properties.entrySet().stream()
+            .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+            .toArray(String[]::new);
+        return new SpringApplicationBuilder(SectorSelectionApplication.class).run(arguments);
+    }
+}
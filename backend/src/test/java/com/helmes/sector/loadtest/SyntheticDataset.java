@@ -0,0 +1,76 @@
+package com.helmes.sector.loadtest;
+
+import java.util.Random;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * A large synthetic taxonomy and selection table, generated in the database with set-based SQL.
+ *
+ * <p>Synthetic sectors get ids above {@link #FIRST_ID} so they never collide with the seeded ones. They form
+ * {@code fanOut} extra roots, and sector {@code n} has children {@code fanOut * n + 1 .. fanOut * (n + 1)},
+ * so 100,000 sectors at a fan-out of 6 are 7 levels deep. Each synthetic selection picks up to
+ * {@code sectorsPerSelection} random synthetic sectors.
+ */
+record SyntheticDataset(
+    int sectors,
+    int fanOut,
+    int depth,
+    int selections,
+    long selectionSectors,
+    long generateMillis
+) {
+
+    static final long FIRST_ID = 1_000_000;
+
+    private static final String INSERT_SECTORS = """
+        INSERT INTO sectors (id, name, parent_id)
+        SELECT ? + i,
+               (ARRAY['Metalworking', 'Furniture', 'Printing', 'Plastics', 'Textiles', 'Electronics', 'Food',
+                      'Logistics', 'Engineering', 'Translation', 'Construction', 'Wood'])[1 + i % 12]
+                   || ' ' || (ARRAY['products', 'services', 'parts', 'materials', 'equipment'])[1 + i / 12 % 5]
+                   || ' ' || i,
+               CASE WHEN i <= ? THEN NULL ELSE ? + (i - 1) / ? END
+        FROM generate_series(1, ?) AS i
+        """;
+
+    private static final String INSERT_SELECTIONS = """
+        INSERT INTO user_selections (session_id, name, agree_to_terms)
+        SELECT 'synthetic-' || i, 'Synthetic user ' || i, TRUE
+        FROM generate_series(1, ?) AS i
+        """;
+
+    private static final String INSERT_SELECTION_SECTORS = """
+        INSERT INTO user_selection_sectors (user_selection_id, sector_id)
+        SELECT us.id, ? + 1 + FLOOR(RANDOM() * ?)::BIGINT
+        FROM user_selections us
+        CROSS JOIN generate_series(1, ?) AS k
+        WHERE us.session_id LIKE 'synthetic-%'
+        ON CONFLICT DO NOTHING
+        """;
+
+    static SyntheticDataset generate(
+        final JdbcTemplate jdbcTemplate,
+        final int sectors,
+        final int fanOut,
+        final int selections,
+        final int sectorsPerSelection
+    ) {
+        final long start = System.nanoTime();
+        jdbcTemplate.update(INSERT_SECTORS, FIRST_ID, fanOut, FIRST_ID, fanOut, sectors);
+        jdbcTemplate.update(INSERT_SELECTIONS, selections);
+        final long selectionSectors = jdbcTemplate.update(INSERT_SELECTION_SECTORS, FIRST_ID, sectors, sectorsPerSelection);
+        jdbcTemplate.execute("ANALYZE");
+        final Integer depth = jdbcTemplate.queryForObject(
+            "SELECT MAX(depth) + 1 FROM sector_closure WHERE descendant_id > ?", Integer.class, FIRST_ID);
+
+        return new SyntheticDataset(sectors, fanOut, depth != null ? depth : 0, selections, selectionSectors,
+            (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * A random synthetic sector id.
+     */
+    long randomSectorId(final Random random) {
+        return FIRST_ID + 1 + random.nextInt(sectors);
+    }
+}
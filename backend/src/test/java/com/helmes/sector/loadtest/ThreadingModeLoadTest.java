@@ -0,0 +1,147 @@
+package com.helmes.sector.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.helmes.sector.monitoring.StatementCounter;
+import com.helmes.sector.support.EmbeddedDatabase;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Runs the same session-based request mix against the application once on Tomcat's platform thread pool
+ * and once in the {@code virtual-threads} profile, each at a rising number of concurrent users, and writes
+ * the results to {@code target/load-test/threading-modes.json}.
+ *
+ * <p>The platform pool is capped at {@code load.tomcat-threads} so the run shows what happens once more
+ * users are waiting on JDBC than there are request threads. For every step the report gives throughput per
+ * core and whether p99 latency stayed within {@code load.slo-p99} milliseconds without errors; per mode it
+ * gives the most concurrent users per core served within that target. Steps are set with
+ * {@code -Dload.user-steps=100,400,1600} (or a single {@code -Dload.users}), and each step is tuned with
+ * {@code -Dload.duration} and {@code -Dload.warmup}.
+ */
+@Tag("load")
+@DisplayName("Platform vs virtual thread load test")
+class ThreadingModeLoadTest {
+
+    private static final List<Integer> USER_STEPS = Arrays.stream(
+            System.getProperty("load.user-steps", System.getProperty("load.users", "100,400,1600")).split(","))
+        .map(String::trim)
+        .map(Integer::valueOf)
+        .toList();
+    private static final Duration WARMUP = Duration.parse("PT" + System.getProperty("load.warmup", "5s"));
+    private static final Duration DURATION = Duration.parse("PT" + System.getProperty("load.duration", "20s"));
+    private static final String TOMCAT_THREADS = System.getProperty("load.tomcat-threads", "50");
+    private static final double SLO_P99_MILLIS = Double.parseDouble(System.getProperty("load.slo-p99", "500"));
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+    private static final List<Long> SECTOR_IDS = List.of(1L, 6L, 342L, 43L, 42L, 2L, 25L, 28L, 3L, 37L);
+
+    @Test
+    @DisplayName("compare throughput, latency and concurrency per core of platform and virtual request threads")
+    void compareThreadingModes() throws Exception {
+        final Map<String, List<Step>> steps = new LinkedHashMap<>();
+        steps.put("platform", runAgainst("platform", null));
+        steps.put("virtual", runAgainst("virtual", "virtual-threads"));
+
+        final Map<String, Double> usersPerCore = new LinkedHashMap<>();
+        steps.forEach((mode, modeSteps) -> usersPerCore.put(mode, modeSteps.stream()
+            .filter(Step::withinSlo)
+            .mapToDouble(step -> (double) step.users() / CORES)
+            .max()
+            .orElse(0)));
+
+        steps.values().forEach(modeSteps -> modeSteps.forEach(step -> System.out.printf("%s %8.1f req/s/core   %s%n",
+            step.result().summary(), step.throughputPerCore(), step.withinSlo() ? "within SLO" : "over SLO")));
+        usersPerCore.forEach((mode, users) -> System.out.printf("%-8s %8.1f users/core within p99 %.0f ms%n",
+            mode, users, SLO_P99_MILLIS));
+
+        final Map<String, Object> report = new LinkedHashMap<>();
+        report.put("cores", CORES);
+        report.put("sloP99Millis", SLO_P99_MILLIS);
+        report.put("usersPerCoreWithinSlo", usersPerCore);
+        report.put("steps", steps);
+        final Path file = Path.of("target", "load-test", "threading-modes.json");
+        Files.createDirectories(file.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+
+        assertThat(steps.values()).allSatisfy(modeSteps ->
+            assertThat(modeSteps).allSatisfy(step -> assertThat(step.result().requests()).isPositive()));
+    }
+
+    private List<Step> runAgainst(final String mode, final String profile) throws Exception {
+        final Map<String, Object> properties = new HashMap<>(EmbeddedDatabase.datasourceProperties());
+        properties.put("server.port", 0);
+        properties.put("server.tomcat.threads.max", TOMCAT_THREADS);
+        if (profile != null) {
+            properties.put("spring.profiles.active", profile);
+        }
+        properties.put("spring.datasource.hikari.maximum-pool-size", 20);
+        properties.put("logging.level.com.helmes", "INFO");
+        properties.put("logging.level.org.hibernate.SQL", "WARN");
+
+        try (ConfigurableApplicationContext context = LoadTestApplication.start(properties)) {
+            final String port = context.getEnvironment().getRequiredProperty("local.server.port");
+            final LoadDriver driver = new LoadDriver(URI.create("http://localhost:" + port));
+            final List<Step> steps = new ArrayList<>();
+            for (final int users : USER_STEPS) {
+                final LoadResult result = driver.run(mode + " " + users + " users", users, WARMUP, DURATION,
+                    ThreadingModeLoadTest::sessionStep, StatementCounter::total);
+                steps.add(new Step(users, result.throughputPerSecond() / CORES,
+                    result.errors() == 0 && result.p99Millis() <= SLO_P99_MILLIS, result));
+            }
+            return steps;
+        }
+    }
+
+    /**
+     * Mostly form reloads, with an occasional save and a sector tree fetch, like a user editing the form.
+     */
+    private static void sessionStep(final LoadDriver.VirtualUser user, final Random random) throws Exception {
+        if (!user.hasSession()) {
+            user.get("/api/v1/user-selections/me");
+            user.post("/api/v1/user-selections", selectionJson(random));
+            return;
+        }
+
+        final int roll = random.nextInt(100);
+        if (roll < 70) {
+            user.get("/api/v1/user-selections/me");
+        } else if (roll < 90) {
+            user.put("/api/v1/user-selections/me", selectionJson(random));
+        } else {
+            user.get("/api/v1/sectors");
+        }
+    }
+
+    private static String selectionJson(final Random random) {
+        final StringBuilder ids = new StringBuilder();
+        final int count = 1 + random.nextInt(4);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                ids.append(',');
+            }
+            ids.append(SECTOR_IDS.get(random.nextInt(SECTOR_IDS.size())));
+        }
+        return "{\"name\":\"Load User\",\"sectorIds\":[" + ids + "],\"agreeToTerms\":true}";
+    }
+
+    /**
+     * One concurrency level of a threading mode.
+     */
+    private record Step(int users, double throughputPerCore, boolean withinSlo, LoadResult result) {
+    }
+}
@@ -0,0 +1,120 @@
+package com.helmes.sector.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.helmes.sector.monitoring.StatementCounter;
+import com.helmes.sector.support.EmbeddedDatabase;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Runs a save-only request mix against the application once with a commit per request and once with
+ * {@code app.write-batching} enabled, each at a rising number of concurrent users, and writes the results to
+ * {@code target/load-test/write-batching.json}.
+ *
+ * <p>Both runs use the {@code virtual-threads} profile with admission control switched off, so the number of
+ * concurrent writes is set by the users alone. Every pooled connection sets {@code synchronous_commit} on, so
+ * each commit waits for its WAL flush as in production, even where the embedded server is configured
+ * otherwise. Steps are set with {@code -Dload.user-steps=50,200,800}, and each step is tuned with
+ * {@code -Dload.duration}, {@code -Dload.warmup} and {@code -Dload.max-wait} (the batching wait).
+ */
+@Tag("load")
+@DisplayName("Write batching load test")
+class WriteBatchingLoadTest {
+
+    private static final List<Integer> USER_STEPS = Arrays.stream(
+            System.getProperty("load.user-steps", "50,200,800").split(","))
+        .map(String::trim)
+        .map(Integer::valueOf)
+        .toList();
+    private static final Duration WARMUP = Duration.parse("PT" + System.getProperty("load.warmup", "5s"));
+    private static final Duration DURATION = Duration.parse("PT" + System.getProperty("load.duration", "20s"));
+    private static final String MAX_WAIT = System.getProperty("load.max-wait", "2ms");
+    private static final List<Long> SECTOR_IDS = List.of(1L, 6L, 342L, 43L, 42L, 2L, 25L, 28L, 3L, 37L);
+
+    @Test
+    @DisplayName("compare throughput and latency of saves with and without group commit")
+    void compareWriteModes() throws Exception {
+        final Map<String, List<LoadResult>> results = new LinkedHashMap<>();
+        results.put("per-request", runAgainst("per-request", false));
+        results.put("group-commit", runAgainst("group-commit", true));
+
+        results.values().forEach(modeResults -> modeResults.forEach(result -> System.out.println(result.summary())));
+
+        final Map<String, Object> report = new LinkedHashMap<>();
+        report.put("maxWait", MAX_WAIT);
+        report.put("results", results);
+        final Path file = Path.of("target", "load-test", "write-batching.json");
+        Files.createDirectories(file.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+
+        assertThat(results.values()).allSatisfy(modeResults ->
+            assertThat(modeResults).allSatisfy(result -> {
+                assertThat(result.requests()).isPositive();
+                assertThat(result.errors()).isZero();
+            }));
+    }
+
+    private List<LoadResult> runAgainst(final String mode, final boolean batching) throws Exception {
+        final Map<String, Object> properties = new HashMap<>(EmbeddedDatabase.datasourceProperties());
+        properties.put("server.port", 0);
+        properties.put("spring.profiles.active", "virtual-threads");
+        properties.put("spring.datasource.hikari.maximum-pool-size", 20);
+        properties.put("spring.datasource.hikari.connection-init-sql", "SET synchronous_commit = on");
+        properties.put("app.admission.enabled", false);
+        properties.put("app.write-batching.enabled", batching);
+        properties.put("app.write-batching.max-wait", MAX_WAIT);
+        properties.put("logging.level.com.helmes", "INFO");
+        properties.put("logging.level.org.hibernate.SQL", "WARN");
+
+        try (ConfigurableApplicationContext context = LoadTestApplication.start(properties)) {
+            final String port = context.getEnvironment().getRequiredProperty("local.server.port");
+            final LoadDriver driver = new LoadDriver(URI.create("http://localhost:" + port));
+            final List<LoadResult> results = new ArrayList<>();
+            for (final int users : USER_STEPS) {
+                results.add(driver.run(mode + " " + users + " users", users, WARMUP, DURATION,
+                    WriteBatchingLoadTest::saveStep, StatementCounter::total));
+            }
+            return results;
+        }
+    }
+
+    /**
+     * Creates the session's selection once, then keeps replacing it.
+     */
+    private static void saveStep(final LoadDriver.VirtualUser user, final Random random) throws Exception {
+        if (!user.hasSession()) {
+            user.get("/api/v1/user-selections/me");
+            user.post("/api/v1/user-selections", selectionJson(random));
+            return;
+        }
+        user.put("/api/v1/user-selections/me", selectionJson(random));
+    }
+
+    private static String selectionJson(final Random random) {
+        final StringBuilder ids = new StringBuilder();
+        final int count = 1 + random.nextInt(4);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                ids.append(',');
+            }
+            ids.append(SECTOR_IDS.get(random.nextInt(SECTOR_IDS.size())));
+        }
+        return "{\"name\":\"Load User\",\"sectorIds\":[" + ids + "],\"agreeToTerms\":true}";
+    }
+}
@@ -0,0 +1,136 @@
+package com.helmes.sector.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.helmes.sector.support.EmbeddedDatabase;
+import com.helmes.sector.support.QueryBudget;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Holds the user-facing endpoints to their SQL statement budgets against a real database, and checks the
+ * counts reach the metrics.
+ */
+@SpringBootTest(properties = "app.bulk.admin-token=budget-admin")
+@AutoConfigureMockMvc
+@DisplayName("Endpoint query budgets")
+class EndpointQueryBudgetTest {
+
+    private static final String SELECTION_JSON = "{\"name\":\"Budget\",\"sectorIds\":[1,19],\"agreeToTerms\":true}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void datasource(final DynamicPropertyRegistry registry) {
+        EmbeddedDatabase.datasourceProperties().forEach((key, value) -> registry.add(key, () -> value));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/sectors should be served without touching the database")
+    void sectorTree() throws Exception {
+        QueryBudget.assertAtMost(0, () -> mockMvc.perform(get("/api/v1/sectors")))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("a session's first visit, create, read and replace should stay within their budgets")
+    void selectionLifecycle() throws Exception {
+        // Looks up the selection and writes the new session through.
+        final Cookie session = QueryBudget.assertAtMost(2, () -> mockMvc.perform(get("/api/v1/user-selections/me")))
+            .andExpect(status().isNoContent())
+            .andReturn().getResponse().getCookie("SESSION");
+
+        QueryBudget.assertAtMost(3, () -> mockMvc.perform(post("/api/v1/user-selections")
+                .cookie(session)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(SELECTION_JSON)))
+            .andExpect(status().isCreated());
+
+        // Written through to the selection cache by the POST.
+        QueryBudget.assertAtMost(0, () -> mockMvc.perform(get("/api/v1/user-selections/me").cookie(session)))
+            .andExpect(status().isOk());
+
+        QueryBudget.assertAtMost(1, () -> mockMvc.perform(put("/api/v1/user-selections/me")
+                .cookie(session)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(SELECTION_JSON)))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("reading a saved selection that is not cached should take one statement")
+    void uncachedSelection() throws Exception {
+        final Cookie session = mockMvc.perform(get("/api/v1/user-selections/me"))
+            .andReturn().getResponse().getCookie("SESSION");
+        final String sessionId = new String(Base64.getDecoder().decode(session.getValue()), StandardCharsets.UTF_8);
+        // An import writes behind the selection cache and drops the session's entry.
+        mockMvc.perform(post("/api/v1/user-selections/import")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer budget-admin")
+                .contentType("application/x-ndjson")
+                .content("{\"sessionId\":\"" + sessionId + "\",\"name\":\"Imported\",\"sectorIds\":[1,19],\"agreeToTerms\":true}"))
+            .andExpect(status().isOk());
+
+        QueryBudget.assertAtMost(1, () -> mockMvc.perform(get("/api/v1/user-selections/me").cookie(session)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value("Imported"))
+            .andExpect(jsonPath("$.sectorIds", containsInAnyOrder(1, 19)));
+    }
+
+    @Test
+    @DisplayName("a request over its budget should fail the test")
+    void overBudget() {
+        assertThatThrownBy(() -> QueryBudget.assertAtMost(0, () -> mockMvc.perform(get("/api/v1/user-selections/me"))))
+            .isInstanceOf(AssertionError.class)
+            .hasMessageContaining("Expected at most 0 SQL statements");
+    }
+
+    @Test
+    @DisplayName("statement counts should be recorded per endpoint and service method")
+    void recordsMetrics() throws Exception {
+        final double recordedBefore = requestStatements();
+        final long statements = QueryBudget.count(() -> mockMvc.perform(get("/api/v1/user-selections/me")));
+
+        assertThat(requestStatements() - recordedBefore).isEqualTo(statements);
+        assertThat(meterRegistry.get("app.service.statements")
+            .tag("class", "com.helmes.sector.service.UserSelectionService")
+            .tag("method", "findBySessionId")
+            .summary()
+            .count()).isPositive();
+        assertThat(meterRegistry.get("hibernate.statements").tag("status", "prepared").functionCounter().count()).isPositive();
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "user-selections").tag("result", "miss")
+            .functionCounter().count()).isPositive();
+    }
+
+    private double requestStatements() {
+        final DistributionSummary summary = meterRegistry.find("http.server.requests.statements")
+            .tag("uri", "/api/v1/user-selections/me")
+            .tag("method", "GET")
+            .tag("status", "204")
+            .summary();
+        return summary != null ? summary.totalAmount() : 0;
+    }
+}
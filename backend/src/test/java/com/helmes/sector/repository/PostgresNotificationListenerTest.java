@@ -0,0 +1,103 @@
+package com.helmes.sector.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import com.helmes.sector.support.EmbeddedDatabase;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+@DisplayName("PostgresNotificationListener integration tests")
+class PostgresNotificationListenerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final PostgresNotificationListener.Handler first = mock(PostgresNotificationListener.Handler.class);
+    private final PostgresNotificationListener.Handler second = mock(PostgresNotificationListener.Handler.class);
+    private JdbcTemplate jdbcTemplate;
+    private PostgresNotificationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        final Map<String, Object> properties = EmbeddedDatabase.datasourceProperties("notification_listener");
+        final DataSourceProperties dataSourceProperties = new DataSourceProperties();
+        dataSourceProperties.setUrl((String) properties.get("spring.datasource.url"));
+        dataSourceProperties.setUsername((String) properties.get("spring.datasource.username"));
+        dataSourceProperties.setPassword((String) properties.get("spring.datasource.password"));
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+            dataSourceProperties.getUrl(), dataSourceProperties.getUsername(), dataSourceProperties.getPassword()));
+        listener = new PostgresNotificationListener(
+            dataSourceProperties, new PostgresNotificationListener.Settings(Duration.ofMillis(200), Duration.ofMillis(500)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        listener.stop();
+    }
+
+    @Test
+    @DisplayName("should pass each channel's notifications to its own handler over one connection")
+    void dispatchesByChannel() throws Exception {
+        listener.register("first_channel", first);
+        listener.register("second_channel", second);
+        listener.start();
+        await(listener::isListening);
+        verify(first, timeout(TIMEOUT.toMillis())).onListening(any(Connection.class));
+        verify(second, timeout(TIMEOUT.toMillis())).onListening(any(Connection.class));
+
+        jdbcTemplate.execute("SELECT pg_notify('second_channel', 'a'), pg_notify('second_channel', 'b')");
+
+        verify(second, timeout(TIMEOUT.toMillis())).onNotifications(List.of("a", "b"));
+        verify(first, never()).onNotifications(any());
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM pg_stat_activity WHERE datname = current_database() AND application_name = ?",
+            Integer.class, PostgresNotificationListener.APPLICATION_NAME)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should not open a connection when no handler is registered")
+    void idleWithoutHandlers() {
+        listener.start();
+
+        assertThat(listener.isRunning()).isFalse();
+        assertThat(listener.isListening()).isFalse();
+    }
+
+    @Test
+    @DisplayName("should refuse a handler after it started, or a second handler for the same channel")
+    void rejectsLateOrDuplicateHandlers() {
+        listener.register("first_channel", first);
+
+        assertThatThrownBy(() -> listener.register("first_channel", second)).isInstanceOf(IllegalStateException.class);
+        listener.start();
+        assertThatThrownBy(() -> listener.register("second_channel", second)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static void await(final BooleanSupplier condition) {
+        final long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %s", TIMEOUT).isLessThan(deadline);
+            try {
+                Thread.sleep(50);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.helmes.sector.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import com.helmes.sector.dto.SectorSelectionCount;
+import com.helmes.sector.repository.SectorRepository;
+import com.helmes.sector.repository.SectorSelectionCountRow;
+import com.helmes.sector.support.SectorRows;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SectorSelectionCounter unit tests")
+class SectorSelectionCounterTest {
+
+    @Mock
+    private SectorService sectorService;
+
+    @Mock
+    private SectorRepository sectorRepository;
+
+    @InjectMocks
+    private SectorSelectionCounter counter;
+
+    /**
+     * 1 Manufacturing
+     *   19 Construction materials
+     *   6 Food and Beverage
+     *     342 Bakery
+     * 2 Service.
+     */
+    @BeforeEach
+    void setUp() {
+        when(sectorService.getTaxonomy()).thenReturn(SectorTaxonomy.of(List.of(
+            SectorRows.row(1L, "Manufacturing", null, 0),
+            SectorRows.row(19L, "Construction materials", 1L, 1),
+            SectorRows.row(6L, "Food and Beverage", 1L, 1),
+            SectorRows.row(342L, "Bakery", 6L, 2),
+            SectorRows.row(2L, "Service", null, 0)
+        )));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("should roll a new selection up to every ancestor once")
+    void rollsUpNewSelection() {
+        counter.recordChange(Set.of(), Set.of(342L, 19L));
+
+        assertThat(counter.countOf(342L)).isEqualTo(new SectorSelectionCount(342L, 1, 1));
+        assertThat(counter.countOf(6L)).isEqualTo(new SectorSelectionCount(6L, 0, 1));
+        assertThat(counter.countOf(1L)).isEqualTo(new SectorSelectionCount(1L, 0, 1));
+        assertThat(counter.countOf(2L)).isEqualTo(new SectorSelectionCount(2L, 0, 0));
+    }
+
+    @Test
+    @DisplayName("should only move the counts of sectors that changed")
+    void appliesDifference() {
+        counter.recordChange(Set.of(), Set.of(342L));
+        counter.recordChange(Set.of(), Set.of(6L));
+
+        counter.recordChange(Set.of(342L), Set.of(19L, 2L));
+
+        assertThat(counter.countOf(342L).rolledUp()).isZero();
+        assertThat(counter.countOf(6L)).isEqualTo(new SectorSelectionCount(6L, 1, 1));
+        assertThat(counter.countOf(19L).rolledUp()).isEqualTo(1);
+        assertThat(counter.countOf(1L).rolledUp()).isEqualTo(2);
+        assertThat(counter.countOf(2L).rolledUp()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should defer deltas until the surrounding transaction commits")
+    void defersUntilCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        counter.recordChange(Set.of(), Set.of(2L));
+        assertThat(counter.countOf(2L).direct()).isZero();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(counter.countOf(2L).direct()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should replace all counters with the database aggregate on reconcile")
+    void reconciles() {
+        counter.recordChange(Set.of(), Set.of(2L));
+        when(sectorRepository.countSelections()).thenReturn(List.of(createCountRow(342L, 4, 4), createCountRow(1L, 0, 4)));
+
+        counter.reconcile();
+
+        assertThat(counter.countOf(2L).direct()).isZero();
+        assertThat(counter.countOf(342L)).isEqualTo(new SectorSelectionCount(342L, 4, 4));
+    }
+
+    @Test
+    @DisplayName("should return a count for every sector in tree order")
+    void snapshotsInTreeOrder() {
+        counter.recordChange(Set.of(), Set.of(342L));
+
+        assertThat(counter.snapshot()).containsExactly(
+            new SectorSelectionCount(1L, 0, 1),
+            new SectorSelectionCount(19L, 0, 0),
+            new SectorSelectionCount(6L, 0, 1),
+            new SectorSelectionCount(342L, 1, 1),
+            new SectorSelectionCount(2L, 0, 0)
+        );
+    }
+
+    private SectorSelectionCountRow createCountRow(final long sectorId, final long direct, final long rolledUp) {
+        return new SectorSelectionCountRow() {
+            @Override
+            public Long getSectorId() {
+                return sectorId;
+            }
+
+            @Override
+            public Long getDirect() {
+                return direct;
+            }
+
+            @Override
+            public Long getRolledUp() {
+                return rolledUp;
+            }
+        };
+    }
+}
@@ -1,11 +1,15 @@
 package com.helmes.sector.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.helmes.sector.dto.SectorNode;
-import com.helmes.sector.entity.Sector;
+import com.helmes.sector.dto.SectorSearchHit;
 import com.helmes.sector.repository.SectorRepository;
+import com.helmes.sector.support.SectorRows;
 import java.util.List;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,7 +17,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("SectorService unit tests")
@@ -28,7 +31,7 @@ class SectorServiceTest {
     @Test
     @DisplayName("should return empty list when no sectors exist")
     void getSectorTree_empty() {
-        when(sectorRepository.findAllRootsWithChildren()).thenReturn(List.of());
+        when(sectorRepository.findHierarchy()).thenReturn(List.of());
 
         final List<SectorNode> result = sectorService.getSectorTree();
 
@@ -38,9 +41,7 @@ class SectorServiceTest {
     @Test
     @DisplayName("should map flat root sectors correctly")
     void getSectorTree_flatRoots() {
-        final Sector root = createSector(1L, "Manufacturing");
-
-        when(sectorRepository.findAllRootsWithChildren()).thenReturn(List.of(root));
+        when(sectorRepository.findHierarchy()).thenReturn(List.of(SectorRows.row(1L, "Manufacturing", null, 0)));
 
         final List<SectorNode> result = sectorService.getSectorTree();
 
@@ -53,24 +54,130 @@ class SectorServiceTest {
     @Test
     @DisplayName("should map nested children recursively")
     void getSectorTree_withChildren() {
-        final Sector child = createSector(6L, "Food and Beverage");
-        final Sector root = createSector(1L, "Manufacturing");
-        ReflectionTestUtils.setField(root, "children", List.of(child));
-
-        when(sectorRepository.findAllRootsWithChildren()).thenReturn(List.of(root));
+        when(sectorRepository.findHierarchy()).thenReturn(List.of(
+            SectorRows.row(1L, "Manufacturing", null, 0),
+            SectorRows.row(6L, "Food and Beverage", 1L, 1),
+            SectorRows.row(342L, "Bakery & confectionery products", 6L, 2),
+            SectorRows.row(43L, "Beverages", 6L, 2),
+            SectorRows.row(19L, "Construction materials", 1L, 1)
+        ));
 
         final List<SectorNode> result = sectorService.getSectorTree();
 
         assertThat(result).hasSize(1);
-        assertThat(result.getFirst().children()).hasSize(1);
+        assertThat(result.getFirst().children()).extracting(SectorNode::id).containsExactly(6L, 19L);
         assertThat(result.getFirst().children().getFirst().name()).isEqualTo("Food and Beverage");
+        assertThat(result.getFirst().children().getFirst().children()).extracting(SectorNode::id).containsExactly(342L, 43L);
     }
 
-    private Sector createSector(final Long id, final String name) {
-        final Sector sector = org.springframework.beans.BeanUtils.instantiateClass(Sector.class);
-        ReflectionTestUtils.setField(sector, "id", id);
-        ReflectionTestUtils.setField(sector, "name", name);
-        return sector;
+    @Test
+    @DisplayName("should serve repeated reads from the loaded snapshot")
+    void getSectorTree_cached() {
+        when(sectorRepository.findHierarchy()).thenReturn(List.of(SectorRows.row(1L, "Manufacturing", null, 0)));
+
+        final List<SectorNode> first = sectorService.getSectorTree();
+        final List<SectorNode> second = sectorService.getSectorTree();
+
+        assertThat(second).isSameAs(first);
+        verify(sectorRepository, times(1)).findHierarchy();
+    }
+
+    @Test
+    @DisplayName("should swap in a new snapshot on reload")
+    void reload_replacesSnapshot() {
+        when(sectorRepository.findHierarchy())
+            .thenReturn(List.of(SectorRows.row(1L, "Manufacturing", null, 0)))
+            .thenReturn(List.of(SectorRows.row(1L, "Manufacturing", null, 0), SectorRows.row(2L, "Service", null, 0)));
+
+        assertThat(sectorService.getSectorTree()).hasSize(1);
+
+        sectorService.reload();
+
+        assertThat(sectorService.getSectorTree()).hasSize(2);
+        assertThat(sectorService.getTaxonomy().contains(2L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("should expose id and parent lookups")
+    void getTaxonomy_lookups() {
+        when(sectorRepository.findHierarchy()).thenReturn(List.of(
+            SectorRows.row(1L, "Manufacturing", null, 0),
+            SectorRows.row(6L, "Food and Beverage", 1L, 1)
+        ));
+
+        final SectorTaxonomy taxonomy = sectorService.getTaxonomy();
+
+        assertThat(taxonomy.size()).isEqualTo(2);
+        assertThat(taxonomy.find(6L)).map(SectorNode::name).contains("Food and Beverage");
+        assertThat(taxonomy.parentOf(6L)).contains(1L);
+        assertThat(taxonomy.parentOf(1L)).isEmpty();
+        assertThat(taxonomy.contains(999L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("should reject rows that are not in pre-order")
+    void getSectorTree_rejectsUnorderedRows() {
+        when(sectorRepository.findHierarchy()).thenReturn(List.of(
+            SectorRows.row(6L, "Food and Beverage", 1L, 1),
+            SectorRows.row(1L, "Manufacturing", null, 0)
+        ));
+
+        assertThatThrownBy(() -> sectorService.getSectorTree())
+            .isInstanceOf(IllegalStateException.class);
     }
-}
 
+    @Test
+    @DisplayName("should find sectors by infix ignoring case and accents, with their ancestor path")
+    void search_infix() {
+        givenSearchTaxonomy();
+
+        final List<SectorSearchHit> result = sectorService.search("CONFECTION", 10);
+
+        assertThat(result).extracting(SectorSearchHit::id).containsExactly(342L);
+        assertThat(result.getFirst().path()).containsExactly(
+            new SectorSearchHit.Ancestor(1L, "Manufacturing"),
+            new SectorSearchHit.Ancestor(6L, "Food and Beverage")
+        );
+        assertThat(sectorService.search("creme", 10)).extracting(SectorSearchHit::id).containsExactly(343L);
+    }
+
+    @Test
+    @DisplayName("should rank name prefixes before word prefixes, then shorter names first")
+    void search_ranking() {
+        givenSearchTaxonomy();
+
+        assertThat(sectorService.search("food", 10)).extracting(SectorSearchHit::id).containsExactly(6L, 344L);
+        assertThat(sectorService.search("ood", 10)).extracting(SectorSearchHit::id).containsExactly(344L, 6L);
+    }
+
+    @Test
+    @DisplayName("should only match word starts for queries shorter than three characters")
+    void search_shortQuery() {
+        givenSearchTaxonomy();
+
+        assertThat(sectorService.search("fo", 10)).extracting(SectorSearchHit::id).containsExactly(6L, 344L);
+        assertThat(sectorService.search("oo", 10)).isEmpty();
+        assertThat(sectorService.search("  ", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should cap results at the limit and reject limits out of range")
+    void search_limit() {
+        givenSearchTaxonomy();
+
+        assertThat(sectorService.search("f", 1)).extracting(SectorSearchHit::id).containsExactly(344L);
+        assertThatThrownBy(() -> sectorService.search("f", 101))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void givenSearchTaxonomy() {
+        when(sectorRepository.findHierarchy()).thenReturn(List.of(
+            SectorRows.row(1L, "Manufacturing", null, 0),
+            SectorRows.row(6L, "Food and Beverage", 1L, 1),
+            SectorRows.row(342L, "Bakery & confectionery products", 6L, 2),
+            SectorRows.row(343L, "Crème brûlée", 6L, 2),
+            SectorRows.row(2L, "Service", null, 0),
+            SectorRows.row(344L, "Fast food", 2L, 1)
+        ));
+    }
+}
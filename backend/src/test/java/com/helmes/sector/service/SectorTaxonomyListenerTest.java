@@ -0,0 +1,117 @@
+package com.helmes.sector.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.helmes.sector.repository.PostgresNotificationListener;
+import com.helmes.sector.support.EmbeddedDatabase;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Changes the {@code sectors} table behind the application's back, as another node or a migration would,
+ * and waits for the listener to pick the change up.
+ */
+@SpringBootTest(properties = {
+    "app.notifications.idle-check-interval=200ms",
+    "app.notifications.reconnect-delay=500ms"
+})
+@AutoConfigureMockMvc
+@DisplayName("SectorTaxonomyListener integration tests")
+class SectorTaxonomyListenerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    private SectorService sectorService;
+
+    @Autowired
+    private SectorTaxonomyListener listener;
+
+    @Autowired
+    private SectorSelectionCounter selectionCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void datasource(final DynamicPropertyRegistry registry) {
+        EmbeddedDatabase.datasourceProperties("taxonomy_listener").forEach((key, value) -> registry.add(key, () -> value));
+    }
+
+    @BeforeEach
+    void awaitListening() {
+        await(listener::isListening);
+    }
+
+    @Test
+    @DisplayName("should reload the snapshot when a sector is added outside the application")
+    void reloadsOnNotification() throws Exception {
+        final long versionBefore = sectorService.getVersion();
+
+        jdbcTemplate.update("INSERT INTO sectors (id, name, parent_id) VALUES (9001, 'Robotics', 1)");
+
+        await(() -> sectorService.getTaxonomy().contains(9001L));
+        assertThat(sectorService.getVersion()).isGreaterThan(versionBefore);
+        mockMvc.perform(get("/actuator/info"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.taxonomy.version").value(sectorService.getVersion()))
+            .andExpect(jsonPath("$.taxonomy.listening").value(true));
+    }
+
+    @Test
+    @DisplayName("should catch up on a change made while its connection was down")
+    void catchesUpAfterReconnect() {
+        jdbcTemplate.queryForList(
+            "SELECT pg_terminate_backend(pid) FROM pg_stat_activity"
+                + " WHERE datname = current_database() AND application_name = ?",
+            PostgresNotificationListener.APPLICATION_NAME
+        );
+        jdbcTemplate.update("UPDATE sectors SET name = 'Renamed while away' WHERE id = 1");
+
+        await(() -> "Renamed while away".equals(sectorService.getTaxonomy().find(1L).orElseThrow().name()));
+        await(listener::isListening);
+    }
+
+    @Test
+    @DisplayName("should recompute rolled-up counts when a sector moves to another parent")
+    void reconcilesCountsOnReload() {
+        final long serviceBefore = selectionCounter.countOf(2L).rolledUp();
+        final Long selectionId = jdbcTemplate.queryForObject(
+            "INSERT INTO user_selections (session_id, name) VALUES ('moved-sector', 'Moved') RETURNING id", Long.class);
+        jdbcTemplate.update("INSERT INTO user_selection_sectors (user_selection_id, sector_id) VALUES (?, 19)", selectionId);
+
+        jdbcTemplate.update("UPDATE sectors SET parent_id = 2 WHERE id = 19");
+
+        await(() -> selectionCounter.countOf(2L).rolledUp() == serviceBefore + 1);
+        assertThat(selectionCounter.countOf(19L).direct()).isEqualTo(1);
+    }
+
+    private static void await(final BooleanSupplier condition) {
+        final long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %s", TIMEOUT).isLessThan(deadline);
+            try {
+                Thread.sleep(50);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+}
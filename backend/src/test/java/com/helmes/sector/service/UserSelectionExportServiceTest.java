@@ -0,0 +1,150 @@
+package com.helmes.sector.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.helmes.sector.dto.UserSelectionExportRow;
+import com.helmes.sector.repository.UserSelectionBulkRepository;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserSelectionExportService unit tests")
+class UserSelectionExportServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+
+    @Mock
+    private UserSelectionBulkRepository bulkRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserSelectionExportService exportService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @BeforeEach
+    void setUp() {
+        exportService = new UserSelectionExportService(bulkRepository, objectMapper, transactionManager, 2);
+    }
+
+    @Test
+    @DisplayName("should page through the table by id until a chunk comes back short")
+    void pagesByKeyset() throws Exception {
+        givenRows(5);
+
+        final long exported = exportService.exportNdjson(new ByteArrayOutputStream(), null);
+
+        assertThat(exported).isEqualTo(5);
+        verify(bulkRepository).findAfter(0L, null, 2);
+        verify(bulkRepository).findAfter(2L, null, 2);
+        verify(bulkRepository).findAfter(4L, null, 2);
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    @DisplayName("should commit each chunk before writing it to the client")
+    void writesAfterCommit() throws Exception {
+        givenRows(1);
+        final OutputStream out = mock(OutputStream.class);
+        final InOrder order = inOrder(transactionManager, out);
+
+        exportService.exportNdjson(out, null);
+
+        order.verify(transactionManager).commit(any());
+        order.verify(out).write(any(byte[].class), eq(0), anyInt());
+    }
+
+    @Test
+    @DisplayName("should stop at the first chunk a disconnected client cannot take")
+    void stopsOnWriteFailure() throws Exception {
+        givenRows(5);
+        final OutputStream out = mock(OutputStream.class);
+        doThrow(new IOException("Broken pipe")).when(out)
+            .write(any(byte[].class), anyInt(), anyInt());
+
+        assertThatThrownBy(() -> exportService.exportNdjson(out, null)).isInstanceOf(IOException.class);
+        verify(bulkRepository).findAfter(0L, null, 2);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("should write one JSON object per line")
+    void writesNdjson() throws Exception {
+        givenRows(2);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportNdjson(out, null);
+
+        final String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        final UserSelectionExportRow first = objectMapper.readValue(lines[0], UserSelectionExportRow.class);
+        assertThat(first).isEqualTo(row(1));
+    }
+
+    @Test
+    @DisplayName("should write a CSV header, quote fields that need it and pass the subtree filter on")
+    void writesCsv() throws Exception {
+        when(bulkRepository.findAfter(anyLong(), eq(1L), eq(2))).thenReturn(List.of(
+            UserSelectionExportRow.builder()
+                .id(1L).name("Doe, \"JD\"").sectorIds(List.of(1L, 2L)).agreeToTerms(true)
+                .createdAt(NOW).updatedAt(NOW)
+                .build()));
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportCsv(out, 1L);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+            UserSelectionExportService.CSV_HEADER + "\n"
+                + "1,\"Doe, \"\"JD\"\"\",1|2,true,2024-01-02T03:04:05,2024-01-02T03:04:05\n");
+    }
+
+    private void givenRows(final int count) {
+        when(bulkRepository.findAfter(anyLong(), isNull(), eq(2))).thenAnswer(invocation -> {
+            final long afterId = invocation.getArgument(0);
+            final int limit = invocation.getArgument(2);
+            return LongStream.rangeClosed(afterId + 1, Math.min(afterId + limit, count)).mapToObj(this::row).toList();
+        });
+    }
+
+    private UserSelectionExportRow row(final long id) {
+        return UserSelectionExportRow.builder()
+            .id(id)
+            .name("John")
+            .sectorIds(List.of(1L))
+            .agreeToTerms(true)
+            .createdAt(NOW)
+            .updatedAt(NOW)
+            .build();
+    }
+}
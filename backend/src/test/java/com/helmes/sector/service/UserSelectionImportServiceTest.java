@@ -0,0 +1,261 @@
+package com.helmes.sector.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helmes.sector.dto.ImportReport;
+import com.helmes.sector.dto.SectorIds;
+import com.helmes.sector.repository.SelectionWrite;
+import com.helmes.sector.repository.UpsertedSelection;
+import com.helmes.sector.repository.UserSelectionBulkRepository;
+import com.helmes.sector.support.SectorRows;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserSelectionImportService unit tests")
+class UserSelectionImportServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 12, 0);
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private UserSelectionBulkRepository bulkRepository;
+
+    @Mock
+    private SectorService sectorService;
+
+    @Mock
+    private SectorSelectionCounter selectionCounter;
+
+    @Mock
+    private UserSelectionCache selectionCache;
+
+    @Captor
+    private ArgumentCaptor<List<SelectionWrite>> batchCaptor;
+
+    private UserSelectionImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new UserSelectionImportService(
+            bulkRepository, sectorService, selectionCounter, selectionCache, new ObjectMapper(), VALIDATOR, 1000, 2
+        );
+    }
+
+    @Nested
+    @DisplayName("importNdjson")
+    class ImportNdjson {
+
+        @Test
+        @DisplayName("should write rows in batches of the requested size")
+        void writesInBatches() throws Exception {
+            when(sectorService.getTaxonomy()).thenReturn(taxonomyOf(1L, 2L));
+            when(bulkRepository.writeAll(anyList())).thenAnswer(invocation -> written(invocation.getArgument(0), 2L));
+
+            final ImportReport report = importService.importNdjson(body(
+                ndjson("s1", 1), ndjson("s2", 2), ndjson("s3", 1), ndjson("s4", 2), ndjson("s5", 1)
+            ), 2);
+
+            verify(bulkRepository, times(3)).writeAll(batchCaptor.capture());
+            assertThat(batchCaptor.getAllValues()).extracting(List::size).containsExactly(2, 2, 1);
+            assertThat(report.rowsRead()).isEqualTo(5);
+            assertThat(report.rowsImported()).isEqualTo(5);
+            assertThat(report.rowsRejected()).isZero();
+            assertThat(report.batches()).isEqualTo(3);
+            verify(selectionCounter, times(3)).recordChange(List.of(2L), Set.of(1L));
+            verify(selectionCounter, times(2)).recordChange(List.of(2L), Set.of(2L));
+            verify(selectionCache, times(3)).invalidateAll(any());
+        }
+
+        @Test
+        @DisplayName("should reject invalid rows by line number and import the rest")
+        void rejectsInvalidRows() throws Exception {
+            when(sectorService.getTaxonomy()).thenReturn(taxonomyOf(1L));
+
+            final ImportReport report = importService.importNdjson(body(
+                ndjson("s1", 1),
+                "{not json",
+                "",
+                ndjson("s2", 99),
+                """
+                {"sessionId":"s3","name":"","sectorIds":[1],"agreeToTerms":true}"""
+            ), 10);
+
+            verify(bulkRepository).writeAll(batchCaptor.capture());
+            assertThat(batchCaptor.getValue()).extracting(SelectionWrite::sessionId).containsExactly("s1");
+            assertThat(report.rowsRead()).isEqualTo(4);
+            assertThat(report.rowsImported()).isEqualTo(1);
+            assertThat(report.rowsRejected()).isEqualTo(3);
+            assertThat(report.errors()).extracting(ImportReport.RowError::row).containsExactly(2L, 4L);
+            assertThat(report.errors().get(1).message()).isEqualTo("One or more sector IDs are invalid.");
+            assertThat(report.errorsTruncated()).isTrue();
+        }
+
+        @Test
+        @DisplayName("should reject an oversized row on its own and write the rest of its batch")
+        void rejectsOversizedRow() throws Exception {
+            when(sectorService.getTaxonomy()).thenReturn(taxonomyOf(1L));
+
+            final ImportReport report = importService.importNdjson(body(
+                ndjson("s1", 1),
+                ndjson("x".repeat(256), 1),
+                """
+                {"sessionId":"s3","name":"%s","sectorIds":[1],"agreeToTerms":true}""".formatted("n".repeat(256)),
+                ndjson("s4", 1)
+            ), 10);
+
+            verify(bulkRepository).writeAll(batchCaptor.capture());
+            assertThat(batchCaptor.getValue()).extracting(SelectionWrite::sessionId).containsExactly("s1", "s4");
+            assertThat(report.rowsImported()).isEqualTo(2);
+            assertThat(report.rowsRejected()).isEqualTo(2);
+            assertThat(report.errors()).containsExactly(
+                new ImportReport.RowError(2, "Session ID must be at most 255 characters"),
+                new ImportReport.RowError(3, "Name must be at most 255 characters")
+            );
+        }
+
+        @Test
+        @DisplayName("should keep the last row when a session appears twice in one batch and count only that one as imported")
+        void lastDuplicateWins() throws Exception {
+            when(sectorService.getTaxonomy()).thenReturn(taxonomyOf(1L, 2L));
+
+            final ImportReport report = importService.importNdjson(body(ndjson("s1", 1), ndjson("s1", 2)), 10);
+
+            verify(bulkRepository).writeAll(batchCaptor.capture());
+            assertThat(batchCaptor.getValue()).singleElement()
+                .extracting(SelectionWrite::sectorIds).isEqualTo(SectorIds.of(2L));
+            assertThat(report.rowsImported()).isEqualTo(1);
+            assertThat(report.rowsSuperseded()).isEqualTo(1);
+            assertThat(report.rowsRejected()).isZero();
+        }
+
+        @Test
+        @DisplayName("should reject every row of a batch that fails to write")
+        void rejectsFailedBatch() throws Exception {
+            when(sectorService.getTaxonomy()).thenReturn(taxonomyOf(1L));
+            doThrow(new DataIntegrityViolationException("fk")).when(bulkRepository).writeAll(any());
+
+            final ImportReport report = importService.importNdjson(body(ndjson("s1", 1), ndjson("s2", 1)), 10);
+
+            assertThat(report.rowsImported()).isZero();
+            assertThat(report.rowsRejected()).isEqualTo(2);
+            verify(selectionCounter, never()).recordChange(any(), any());
+            verify(selectionCache, never()).invalidateAll(any());
+            assertThat(report.errors()).extracting(ImportReport.RowError::row).containsExactly(1L, 2L);
+        }
+
+        @Test
+        @DisplayName("should refuse a batch size above the configured maximum")
+        void rejectsBatchSize() {
+            assertThatThrownBy(() -> importService.importNdjson(body(ndjson("s1", 1)), 1001))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Batch size");
+
+            verify(bulkRepository, never()).writeAll(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("importCsv")
+    class ImportCsv {
+
+        @Test
+        @DisplayName("should map columns by header name and unquote fields")
+        void mapsColumnsByHeader() throws Exception {
+            when(sectorService.getTaxonomy()).thenReturn(taxonomyOf(1L, 2L));
+
+            final ImportReport report = importService.importCsv(body(
+                "name,agreeToTerms,sessionId,sectorIds",
+                "\"Doe, \"\"JD\"\" John\",true,s1,1|2"
+            ), 10);
+
+            verify(bulkRepository).writeAll(batchCaptor.capture());
+            final SelectionWrite row = batchCaptor.getValue().getFirst();
+            assertThat(row.name()).isEqualTo("Doe, \"JD\" John");
+            assertThat(row.sessionId()).isEqualTo("s1");
+            assertThat(row.sectorIds()).containsExactly(1L, 2L);
+            assertThat(row.agreeToTerms()).isTrue();
+            assertThat(row.createOnly()).isFalse();
+            assertThat(report.rowsImported()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should report CSV line numbers including the header")
+        void reportsLineNumbers() throws Exception {
+            final ImportReport report = importService.importCsv(body(
+                "sessionId,name,sectorIds,agreeToTerms",
+                "s1,John,abc,true"
+            ), 10);
+
+            assertThat(report.errors()).singleElement()
+                .isEqualTo(new ImportReport.RowError(2, "Invalid sector ID: abc"));
+        }
+
+        @Test
+        @DisplayName("should reject a header without the required columns")
+        void rejectsHeader() {
+            assertThatThrownBy(() -> importService.importCsv(body("sessionId,name"), 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("CSV header");
+        }
+    }
+
+    /**
+     * What the repository reports for a batch whose sessions all had {@code previousSectorId} selected before.
+     */
+    private static Map<String, UpsertedSelection> written(final List<SelectionWrite> batch, final long previousSectorId) {
+        final Map<String, UpsertedSelection> written = new HashMap<>();
+        for (final SelectionWrite write : batch) {
+            written.put(write.sessionId(), new Saved(1L, NOW, NOW, new Long[] {previousSectorId}));
+        }
+        return written;
+    }
+
+    private static InputStream body(final String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String ndjson(final String sessionId, final long sectorId) {
+        return """
+            {"sessionId":"%s","name":"John","sectorIds":[%d],"agreeToTerms":true}""".formatted(sessionId, sectorId);
+    }
+
+    private SectorTaxonomy taxonomyOf(final long... ids) {
+        return SectorTaxonomy.of(SectorRows.roots(ids));
+    }
+
+    private record Saved(
+        Long getId,
+        LocalDateTime getCreatedAt,
+        LocalDateTime getUpdatedAt,
+        Long[] getPreviousSectorIds
+    ) implements UpsertedSelection {
+    }
+}
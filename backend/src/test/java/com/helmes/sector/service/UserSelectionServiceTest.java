@@ -3,15 +3,28 @@ package com.helmes.sector.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.helmes.sector.dto.SectorIds;
 import com.helmes.sector.dto.UserSelectionRequest;
 import com.helmes.sector.dto.UserSelectionResponse;
 import com.helmes.sector.entity.Sector;
 import com.helmes.sector.entity.UserSelection;
 import com.helmes.sector.repository.SectorRepository;
+import com.helmes.sector.repository.UpsertedSelection;
 import com.helmes.sector.repository.UserSelectionRepository;
+import com.helmes.sector.repository.UserSelectionRow;
+import com.helmes.sector.support.SectorRows;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -21,6 +34,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
@@ -36,6 +50,15 @@ class UserSelectionServiceTest {
     @Mock
     private SectorRepository sectorRepository;
 
+    @Mock
+    private SectorService sectorService;
+
+    @Mock
+    private SectorSelectionCounter selectionCounter;
+
+    @Spy
+    private UserSelectionCache selectionCache = new UserSelectionCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
     @InjectMocks
     private UserSelectionService userSelectionService;
 
@@ -46,7 +69,7 @@ class UserSelectionServiceTest {
         @Test
         @DisplayName("should return empty when no selection exists")
         void returnsEmpty() {
-            when(userSelectionRepository.findBySessionId(SESSION_ID)).thenReturn(Optional.empty());
+            when(userSelectionRepository.findRowBySessionId(SESSION_ID)).thenReturn(Optional.empty());
 
             assertThat(userSelectionService.findBySessionId(SESSION_ID)).isEmpty();
         }
@@ -54,8 +77,7 @@ class UserSelectionServiceTest {
         @Test
         @DisplayName("should return mapped response when selection exists")
         void returnsResponse() {
-            final UserSelection entity = buildEntity();
-            when(userSelectionRepository.findBySessionId(SESSION_ID)).thenReturn(Optional.of(entity));
+            when(userSelectionRepository.findRowBySessionId(SESSION_ID)).thenReturn(Optional.of(buildRow()));
 
             final Optional<UserSelectionResponse> result = userSelectionService.findBySessionId(SESSION_ID);
 
@@ -63,6 +85,21 @@ class UserSelectionServiceTest {
             assertThat(result.get().name()).isEqualTo("John");
             assertThat(result.get().sectorIds()).containsExactly(1L);
         }
+
+        @Test
+        @DisplayName("should serve repeated lookups from the cache, including a missing selection")
+        void cachesResults() {
+            when(userSelectionRepository.findRowBySessionId(SESSION_ID)).thenReturn(Optional.of(buildRow()));
+            when(userSelectionRepository.findRowBySessionId("other")).thenReturn(Optional.empty());
+
+            final Optional<UserSelectionResponse> first = userSelectionService.findBySessionId(SESSION_ID);
+            assertThat(userSelectionService.findBySessionId(SESSION_ID)).isSameAs(first);
+            assertThat(userSelectionService.findBySessionId("other")).isEmpty();
+            assertThat(userSelectionService.findBySessionId("other")).isEmpty();
+
+            verify(userSelectionRepository, times(1)).findRowBySessionId(SESSION_ID);
+            verify(userSelectionRepository, times(1)).findRowBySessionId("other");
+        }
     }
 
     @Nested
@@ -74,12 +111,13 @@ class UserSelectionServiceTest {
         void createsSuccessfully() {
             final UserSelectionRequest request = UserSelectionRequest.builder()
                 .name("John")
-                .sectorIds(Set.of(1L))
+                .sectorIds(SectorIds.of(1L))
                 .agreeToTerms(true)
                 .build();
 
-            when(userSelectionRepository.findBySessionId(SESSION_ID)).thenReturn(Optional.empty());
-            when(sectorRepository.findAllById(anySet())).thenReturn(List.of(createSector(1L)));
+            when(userSelectionRepository.existsBySessionId(SESSION_ID)).thenReturn(false);
+            when(sectorService.getTaxonomy()).thenReturn(taxonomyOf(1L));
+            when(sectorRepository.getReferenceById(1L)).thenReturn(createSector(1L));
             when(userSelectionRepository.save(any())).thenAnswer(inv -> {
                 final UserSelection saved = inv.getArgument(0);
                 ReflectionTestUtils.setField(saved, "id", 1L);
@@ -90,16 +128,20 @@ class UserSelectionServiceTest {
 
             assertThat(response.name()).isEqualTo("John");
             assertThat(response.agreeToTerms()).isTrue();
+            assertThat(response.sectorIds()).containsExactly(1L);
+            verify(selectionCounter).recordChange(List.of(), List.of(1L));
+            assertThat(userSelectionService.findBySessionId(SESSION_ID)).containsSame(response);
+            verify(userSelectionRepository, never()).findRowBySessionId(any());
         }
 
         @Test
         @DisplayName("should throw when selection already exists")
         void throwsOnDuplicate() {
-            when(userSelectionRepository.findBySessionId(SESSION_ID)).thenReturn(Optional.of(buildEntity()));
+            when(userSelectionRepository.existsBySessionId(SESSION_ID)).thenReturn(true);
 
             final UserSelectionRequest request = UserSelectionRequest.builder()
                 .name("John")
-                .sectorIds(Set.of(1L))
+                .sectorIds(SectorIds.of(1L))
                 .agreeToTerms(true)
                 .build();
 
@@ -107,20 +149,45 @@ class UserSelectionServiceTest {
                 .isInstanceOf(IllegalStateException.class);
         }
 
+        @Test
+        @DisplayName("should return the existing selection when it is identical to the request")
+        void returnsIdenticalExisting() {
+            when(userSelectionRepository.existsBySessionId(SESSION_ID)).thenReturn(true);
+            when(userSelectionRepository.findRowBySessionId(SESSION_ID)).thenReturn(Optional.of(buildRow()));
+
+            final UserSelectionRequest identical = UserSelectionRequest.builder()
+                .name("John")
+                .sectorIds(SectorIds.of(1L))
+                .agreeToTerms(true)
+                .build();
+            final UserSelectionRequest renamed = UserSelectionRequest.builder()
+                .name("Jane")
+                .sectorIds(SectorIds.of(1L))
+                .agreeToTerms(true)
+                .build();
+
+            assertThat(userSelectionService.create(SESSION_ID, identical).id()).isEqualTo(1L);
+            assertThatThrownBy(() -> userSelectionService.create(SESSION_ID, renamed))
+                .isInstanceOf(IllegalStateException.class);
+            verify(userSelectionRepository, never()).save(any());
+            verify(selectionCounter, never()).recordChange(any(), any());
+        }
+
         @Test
         @DisplayName("should throw when sector IDs are invalid")
         void throwsOnInvalidSectors() {
-            when(userSelectionRepository.findBySessionId(SESSION_ID)).thenReturn(Optional.empty());
-            when(sectorRepository.findAllById(anySet())).thenReturn(List.of());
+            when(userSelectionRepository.existsBySessionId(SESSION_ID)).thenReturn(false);
+            when(sectorService.getTaxonomy()).thenReturn(taxonomyOf(1L));
 
             final UserSelectionRequest request = UserSelectionRequest.builder()
                 .name("John")
-                .sectorIds(Set.of(999L))
+                .sectorIds(SectorIds.of(1L, 999L))
                 .agreeToTerms(true)
                 .build();
 
             assertThatThrownBy(() -> userSelectionService.create(SESSION_ID, request))
                 .isInstanceOf(IllegalArgumentException.class);
+            verify(sectorRepository, never()).getReferenceById(any());
         }
     }
 
@@ -133,18 +200,44 @@ class UserSelectionServiceTest {
         void updatesSuccessfully() {
             final UserSelection existing = buildEntity();
             when(userSelectionRepository.findBySessionId(SESSION_ID)).thenReturn(Optional.of(existing));
-            when(sectorRepository.findAllById(anySet())).thenReturn(List.of(createSector(2L)));
-            when(userSelectionRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+            when(sectorService.getTaxonomy()).thenReturn(taxonomyOf(1L, 2L));
+            when(sectorRepository.getReferenceById(2L)).thenReturn(createSector(2L));
 
             final UserSelectionRequest request = UserSelectionRequest.builder()
                 .name("Jane")
-                .sectorIds(Set.of(2L))
+                .sectorIds(SectorIds.of(2L))
                 .agreeToTerms(true)
                 .build();
 
             final UserSelectionResponse response = userSelectionService.update(SESSION_ID, request);
 
             assertThat(response.name()).isEqualTo("Jane");
+            assertThat(response.sectorIds()).containsExactly(2L);
+            assertThat(existing.getSectors()).extracting(Sector::getId).containsExactly(2L);
+            verify(userSelectionRepository).flush();
+            verify(selectionCounter).recordChange(List.of(1L), List.of(2L));
+        }
+
+        @Test
+        @DisplayName("should keep unchanged sectors and only attach the added ones")
+        void updatesSectorDelta() {
+            final UserSelection existing = buildEntity();
+            final Sector kept = existing.getSectors().iterator().next();
+            when(userSelectionRepository.findBySessionId(SESSION_ID)).thenReturn(Optional.of(existing));
+            when(sectorService.getTaxonomy()).thenReturn(taxonomyOf(1L, 2L));
+            when(sectorRepository.getReferenceById(2L)).thenReturn(createSector(2L));
+
+            final UserSelectionRequest request = UserSelectionRequest.builder()
+                .name("John")
+                .sectorIds(SectorIds.of(1L, 2L))
+                .agreeToTerms(true)
+                .build();
+
+            final UserSelectionResponse response = userSelectionService.update(SESSION_ID, request);
+
+            assertThat(response.sectorIds()).containsExactlyInAnyOrder(1L, 2L);
+            assertThat(existing.getSectors()).contains(kept).extracting(Sector::getId).containsExactlyInAnyOrder(1L, 2L);
+            verify(sectorRepository, never()).getReferenceById(1L);
         }
 
         @Test
@@ -154,7 +247,7 @@ class UserSelectionServiceTest {
 
             final UserSelectionRequest request = UserSelectionRequest.builder()
                 .name("Jane")
-                .sectorIds(Set.of(1L))
+                .sectorIds(SectorIds.of(1L))
                 .agreeToTerms(true)
                 .build();
 
@@ -163,23 +256,109 @@ class UserSelectionServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("upsert")
+    class Upsert {
+
+        @Test
+        @DisplayName("should upsert in one repository call and return the requested state")
+        void upsertsSuccessfully() {
+            final LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+            final UpsertedSelection saved = mock(UpsertedSelection.class);
+            when(saved.getId()).thenReturn(7L);
+            when(saved.getCreatedAt()).thenReturn(createdAt);
+            when(saved.getPreviousSectorIds()).thenReturn(new Long[] {1L});
+            when(sectorService.getTaxonomy()).thenReturn(taxonomyOf(1L, 2L));
+            when(userSelectionRepository.upsert(eq(SESSION_ID), eq("John"), eq(true), any())).thenReturn(saved);
+
+            final UserSelectionRequest request = UserSelectionRequest.builder()
+                .name("John")
+                .sectorIds(SectorIds.of(1L, 2L))
+                .agreeToTerms(true)
+                .build();
+
+            final UserSelectionResponse response = userSelectionService.upsert(SESSION_ID, request);
+
+            assertThat(response.id()).isEqualTo(7L);
+            assertThat(response.sectorIds()).containsExactlyInAnyOrder(1L, 2L);
+            assertThat(response.createdAt()).isEqualTo(createdAt);
+            verify(userSelectionRepository, never()).findBySessionId(any());
+            verify(selectionCounter).recordChange(List.of(1L), List.of(1L, 2L));
+            assertThat(userSelectionService.findBySessionId(SESSION_ID)).containsSame(response);
+        }
+
+        @Test
+        @DisplayName("should throw when sector IDs are invalid")
+        void throwsOnInvalidSectors() {
+            when(sectorService.getTaxonomy()).thenReturn(taxonomyOf(1L));
+
+            final UserSelectionRequest request = UserSelectionRequest.builder()
+                .name("John")
+                .sectorIds(SectorIds.of(999L))
+                .agreeToTerms(true)
+                .build();
+
+            assertThatThrownBy(() -> userSelectionService.upsert(SESSION_ID, request))
+                .isInstanceOf(IllegalArgumentException.class);
+            verify(userSelectionRepository, never()).upsert(any(), any(), anyBoolean(), any());
+            verify(selectionCounter, never()).recordChange(any(), any());
+        }
+    }
+
     private UserSelection buildEntity() {
         final Sector sector = createSector(1L);
         final UserSelection entity = UserSelection.builder()
             .sessionId(SESSION_ID)
             .name("John")
             .agreeToTerms(true)
-            .sectors(Set.of(sector))
+            .sectors(new HashSet<>(Set.of(sector)))
             .build();
         ReflectionTestUtils.setField(entity, "id", 1L);
         return entity;
     }
 
+    private UserSelectionRow buildRow() {
+        return new UserSelectionRow() {
+            @Override
+            public Long getId() {
+                return 1L;
+            }
+
+            @Override
+            public String getName() {
+                return "John";
+            }
+
+            @Override
+            public boolean isAgreeToTerms() {
+                return true;
+            }
+
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return LocalDateTime.of(2025, 1, 1, 12, 0);
+            }
+
+            @Override
+            public LocalDateTime getUpdatedAt() {
+                return LocalDateTime.of(2025, 1, 1, 12, 0);
+            }
+
+            @Override
+            public Long[] getSectorIds() {
+                return new Long[] {1L};
+            }
+        };
+    }
+
     private Sector createSector(final Long id) {
         final Sector sector = org.springframework.beans.BeanUtils.instantiateClass(Sector.class);
         ReflectionTestUtils.setField(sector, "id", id);
         ReflectionTestUtils.setField(sector, "name", "Test Sector");
         return sector;
     }
-}
 
+    private SectorTaxonomy taxonomyOf(final long... ids) {
+        return SectorTaxonomy.of(SectorRows.roots(ids));
+    }
+}
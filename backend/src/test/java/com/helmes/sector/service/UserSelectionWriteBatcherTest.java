@@ -0,0 +1,284 @@
+package com.helmes.sector.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.helmes.sector.dto.SectorIds;
+import com.helmes.sector.dto.UserSelectionRequest;
+import com.helmes.sector.dto.UserSelectionResponse;
+import com.helmes.sector.exception.AdmissionRejectedException;
+import com.helmes.sector.repository.SectorRepository;
+import com.helmes.sector.repository.SelectionWrite;
+import com.helmes.sector.repository.UpsertedSelection;
+import com.helmes.sector.repository.UserSelectionBulkRepository;
+import com.helmes.sector.repository.UserSelectionRepository;
+import com.helmes.sector.support.SectorRows;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserSelectionWriteBatcher unit tests")
+class UserSelectionWriteBatcherTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Mock
+    private UserSelectionBulkRepository bulkRepository;
+
+    @Mock
+    private SectorService sectorService;
+
+    @Mock
+    private SectorSelectionCounter selectionCounter;
+
+    @Captor
+    private ArgumentCaptor<List<SelectionWrite>> batchCaptor;
+
+    private final UserSelectionCache selectionCache =
+        new UserSelectionCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+    private final ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong ids = new AtomicLong();
+    private UserSelectionWriteBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        when(sectorService.getTaxonomy()).thenReturn(SectorTaxonomy.of(SectorRows.roots(1L, 2L)));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        callers.shutdownNow();
+        if (batcher != null) {
+            batcher.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("should write concurrent saves as one batch and answer each caller with its own response")
+    void coalescesConcurrentWrites() throws Exception {
+        start(3, Duration.ofSeconds(5));
+        when(bulkRepository.writeAll(anyList())).thenAnswer(invocation -> written(invocation.getArgument(0)));
+
+        final CompletableFuture<UserSelectionResponse> first = upsertAsync("a", 1L);
+        final CompletableFuture<UserSelectionResponse> second = upsertAsync("b", 2L);
+        final CompletableFuture<UserSelectionResponse> third = upsertAsync("c", 1L);
+
+        assertThat(List.of(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS), third.get(5, TimeUnit.SECONDS)))
+            .extracting(UserSelectionResponse::id)
+            .doesNotHaveDuplicates();
+        assertThat(second.get().sectorIds()).containsExactly(2L);
+        verify(bulkRepository).writeAll(batchCaptor.capture());
+        assertThat(batchCaptor.getValue()).extracting(SelectionWrite::sessionId)
+            .containsExactlyInAnyOrder("a", "b", "c");
+        verify(selectionCounter, times(3)).recordChange(any(), any());
+        assertThat(selectionCache.get("b", key -> Optional.empty())).contains(second.get());
+    }
+
+    @Test
+    @DisplayName("should commit a lone write after the maximum wait")
+    void flushesAfterMaxWait() {
+        start(10, Duration.ofMillis(5));
+        when(bulkRepository.writeAll(anyList())).thenAnswer(invocation -> written(invocation.getArgument(0)));
+
+        final UserSelectionResponse response = batcher.upsert("a", request(1L));
+
+        assertThat(response.sectorIds()).containsExactly(1L);
+        assertThat(response.createdAt()).isEqualTo(NOW);
+    }
+
+    @Test
+    @DisplayName("should reject a create for a session that already has a different selection")
+    void createConflicts() {
+        start(10, Duration.ofMillis(5));
+        when(bulkRepository.writeAll(anyList())).thenReturn(Map.of());
+
+        assertThatThrownBy(() -> batcher.create("a", request(1L)))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("already exists");
+        verify(selectionCounter, never()).recordChange(any(), any());
+    }
+
+    @Test
+    @DisplayName("should answer a retried create with the identical selection an earlier attempt saved")
+    void createRetried() {
+        start(10, Duration.ofMillis(5));
+        when(bulkRepository.writeAll(anyList())).thenReturn(Map.of());
+        final UserSelectionResponse saved = UserSelectionResponse.builder()
+            .id(7L)
+            .name("John")
+            .sectorIds(SectorIds.of(1L))
+            .agreeToTerms(true)
+            .createdAt(NOW)
+            .updatedAt(NOW)
+            .build();
+        selectionCache.put("a", saved);
+
+        assertThat(batcher.create("a", request(1L))).isSameAs(saved);
+        assertThatThrownBy(() -> batcher.create("a", request(2L)))
+            .isInstanceOf(IllegalStateException.class);
+        verify(selectionCounter, never()).recordChange(any(), any());
+    }
+
+    @Test
+    @DisplayName("should put a second write for the same session into the next batch")
+    void sameSessionInNextBatch() throws Exception {
+        start(10, Duration.ofMillis(200));
+        when(bulkRepository.writeAll(anyList())).thenAnswer(invocation -> written(invocation.getArgument(0)));
+
+        final CompletableFuture<UserSelectionResponse> first = upsertAsync("a", 1L);
+        final CompletableFuture<UserSelectionResponse> second = upsertAsync("a", 2L);
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        verify(bulkRepository, times(2)).writeAll(batchCaptor.capture());
+        assertThat(batchCaptor.getAllValues()).allSatisfy(batch -> assertThat(batch).hasSize(1));
+    }
+
+    @Test
+    @DisplayName("should retry a failed batch one write at a time, failing only the bad write")
+    void isolatesFailures() throws Exception {
+        start(2, Duration.ofSeconds(5));
+        when(bulkRepository.writeAll(anyList())).thenAnswer(invocation -> {
+            final List<SelectionWrite> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(write -> write.sessionId().equals("bad"))) {
+                throw new DataIntegrityViolationException("violates foreign key constraint");
+            }
+            return written(batch);
+        });
+
+        final CompletableFuture<UserSelectionResponse> good = upsertAsync("good", 1L);
+        final CompletableFuture<UserSelectionResponse> bad = upsertAsync("bad", 2L);
+
+        assertThat(good.get(5, TimeUnit.SECONDS).sectorIds()).containsExactly(1L);
+        assertThatThrownBy(() -> bad.get(5, TimeUnit.SECONDS))
+            .hasCauseInstanceOf(DataIntegrityViolationException.class);
+        verify(bulkRepository, times(3)).writeAll(anyList());
+    }
+
+    @Test
+    @DisplayName("should reject unknown sector IDs without queueing the write")
+    void rejectsInvalidSectors() {
+        start(10, Duration.ofMillis(5));
+
+        assertThatThrownBy(() -> batcher.upsert("a", request(999L)))
+            .isInstanceOf(IllegalArgumentException.class);
+        verify(bulkRepository, never()).writeAll(anyList());
+    }
+
+    @Test
+    @DisplayName("should answer 503 when the batch does not commit within max-wait plus commit-timeout")
+    void timesOut() throws Exception {
+        start(10, Duration.ofMillis(5), Duration.ofMillis(200));
+        final CountDownLatch release = new CountDownLatch(1);
+        when(bulkRepository.writeAll(anyList())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return written(invocation.getArgument(0));
+        });
+
+        try {
+            assertThatThrownBy(() -> batcher.upsert("a", request(1L)))
+                .isInstanceOfSatisfying(AdmissionRejectedException.class,
+                    ex -> assertThat(ex.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("should keep writing after a batch fails with an error, failing only that batch")
+    void survivesErrors() {
+        start(10, Duration.ofMillis(5));
+        when(bulkRepository.writeAll(anyList()))
+            .thenThrow(new StackOverflowError())
+            .thenAnswer(invocation -> written(invocation.getArgument(0)));
+
+        assertThatThrownBy(() -> batcher.upsert("a", request(1L))).isInstanceOf(StackOverflowError.class);
+        assertThat(batcher.upsert("a", request(2L)).sectorIds()).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("should answer 503 once stopped")
+    void rejectsAfterStop() throws Exception {
+        start(10, Duration.ofMillis(5));
+        batcher.stop();
+
+        assertThatThrownBy(() -> batcher.upsert("a", request(1L)))
+            .isInstanceOfSatisfying(AdmissionRejectedException.class,
+                ex -> assertThat(ex.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        verify(bulkRepository, never()).writeAll(anyList());
+    }
+
+    private void start(final int maxBatchSize, final Duration maxWait) {
+        start(maxBatchSize, maxWait, Duration.ofSeconds(5));
+    }
+
+    private void start(final int maxBatchSize, final Duration maxWait, final Duration commitTimeout) {
+        batcher = new UserSelectionWriteBatcher(
+            bulkRepository,
+            new UserSelectionService(
+                mock(UserSelectionRepository.class), mock(SectorRepository.class), sectorService, selectionCounter, selectionCache),
+            mock(PlatformTransactionManager.class),
+            new UserSelectionWriteBatcher.Settings(maxBatchSize, maxWait, commitTimeout),
+            new SimpleMeterRegistry()
+        );
+        batcher.start();
+    }
+
+    private CompletableFuture<UserSelectionResponse> upsertAsync(final String sessionId, final long sectorId) {
+        return CompletableFuture.supplyAsync(() -> batcher.upsert(sessionId, request(sectorId)), callers);
+    }
+
+    private Map<String, UpsertedSelection> written(final List<SelectionWrite> batch) {
+        final Map<String, UpsertedSelection> written = new HashMap<>();
+        for (final SelectionWrite write : batch) {
+            written.put(write.sessionId(), new Saved(ids.incrementAndGet(), NOW, NOW, new Long[0]));
+        }
+        return written;
+    }
+
+    private static UserSelectionRequest request(final long sectorId) {
+        return UserSelectionRequest.builder()
+            .name("John")
+            .sectorIds(SectorIds.of(sectorId))
+            .agreeToTerms(true)
+            .build();
+    }
+
+    private record Saved(
+        Long getId,
+        LocalDateTime getCreatedAt,
+        LocalDateTime getUpdatedAt,
+        Long[] getPreviousSectorIds
+    ) implements UpsertedSelection {
+    }
+}
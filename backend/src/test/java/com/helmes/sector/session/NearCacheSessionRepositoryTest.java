@@ -0,0 +1,222 @@
+package com.helmes.sector.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.MapSession;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NearCacheSessionRepository unit tests")
+class NearCacheSessionRepositoryTest {
+
+    @Mock
+    private FindByIndexNameSessionRepository<MapSession> delegate;
+
+    private final List<String> published = new ArrayList<>();
+    private NearCacheSessionRepository<MapSession> repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new NearCacheSessionRepository<>(delegate, 100, Duration.ofHours(1), published::addAll);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    @Test
+    @DisplayName("should write new sessions through and serve them from the cache afterwards")
+    void save_newSession() {
+        when(delegate.createSession()).thenReturn(new MapSession());
+
+        final NearCacheSessionRepository.CachedSession<MapSession> session = repository.createSession();
+        repository.save(session);
+
+        assertThat(repository.findById(session.getId())).isSameAs(session);
+        verify(delegate).save(any(MapSession.class));
+        verify(delegate, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("should coalesce repeated saves into one write per flush")
+    void save_coalescesUpdates() {
+        final MapSession stored = new MapSession();
+        when(delegate.findById(stored.getId())).thenReturn(stored);
+
+        for (int i = 0; i < 5; i++) {
+            final NearCacheSessionRepository.CachedSession<MapSession> session = repository.findById(stored.getId());
+            session.setLastAccessedTime(Instant.now());
+            repository.save(session);
+        }
+        verify(delegate, never()).save(any(MapSession.class));
+
+        repository.flush();
+        repository.flush();
+
+        verify(delegate, times(1)).findById(stored.getId());
+        verify(delegate, times(1)).save(stored);
+    }
+
+    @Test
+    @DisplayName("should write id changes through and forget the old id")
+    void save_changedId() {
+        final MapSession stored = new MapSession();
+        final String oldId = stored.getId();
+        when(delegate.findById(oldId)).thenReturn(stored).thenReturn(null);
+
+        final NearCacheSessionRepository.CachedSession<MapSession> session = repository.findById(oldId);
+        final String newId = session.changeSessionId();
+        repository.save(session);
+
+        verify(delegate).save(stored);
+        assertThat(repository.findById(newId)).isSameAs(session);
+        assertThat(repository.findById(oldId)).isNull();
+    }
+
+    @Test
+    @DisplayName("should serve a session while it is being written back and write later changes on the next flush")
+    void flush_doesNotBlockRequests() throws Exception {
+        final MapSession stored = new MapSession();
+        when(delegate.findById(stored.getId())).thenReturn(stored);
+        final CountDownLatch saving = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            saving.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).doNothing().when(delegate).save(stored);
+
+        final NearCacheSessionRepository.CachedSession<MapSession> session = repository.findById(stored.getId());
+        session.setAttribute("first", 1);
+        repository.save(session);
+        final CompletableFuture<Void> flush = CompletableFuture.runAsync(repository::flush);
+        assertThat(saving.await(5, TimeUnit.SECONDS)).isTrue();
+
+        final CompletableFuture<Object> request = CompletableFuture.supplyAsync(() -> {
+            session.setLastAccessedTime(Instant.now());
+            session.setAttribute("second", 2);
+            repository.save(session);
+            return session.getAttribute("first");
+        });
+        assertThat(request.get(1, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(stored.<Integer>getAttribute("second")).isNull();
+
+        release.countDown();
+        flush.get(5, TimeUnit.SECONDS);
+        repository.flush();
+
+        verify(delegate, times(2)).save(stored);
+        assertThat(stored.<Integer>getAttribute("second")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should load a session outside the cache and keep the first copy when two loads race")
+    void findById_racingLoads() throws Exception {
+        final MapSession stored = new MapSession();
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(delegate.findById(stored.getId()))
+            .thenAnswer(invocation -> {
+                loading.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return stored;
+            })
+            .thenReturn(stored);
+
+        final CompletableFuture<NearCacheSessionRepository.CachedSession<MapSession>> slow =
+            CompletableFuture.supplyAsync(() -> repository.findById(stored.getId()));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        final NearCacheSessionRepository.CachedSession<MapSession> fast =
+            CompletableFuture.supplyAsync(() -> repository.findById(stored.getId())).get(1, TimeUnit.SECONDS);
+        release.countDown();
+
+        assertThat(slow.get(5, TimeUnit.SECONDS)).isSameAs(fast);
+        assertThat(repository.findById(stored.getId())).isSameAs(fast);
+    }
+
+    @Test
+    @DisplayName("should reload expired sessions from the delegate")
+    void findById_expired() {
+        final MapSession stored = new MapSession();
+        when(delegate.findById(stored.getId())).thenReturn(stored).thenReturn(null);
+
+        repository.findById(stored.getId()).setLastAccessedTime(Instant.now().minus(Duration.ofHours(2)));
+
+        assertThat(repository.findById(stored.getId())).isNull();
+    }
+
+    @Test
+    @DisplayName("should drop deleted sessions from the cache and pending writes")
+    void deleteById() {
+        final MapSession stored = new MapSession();
+        when(delegate.findById(stored.getId())).thenReturn(stored).thenReturn(null);
+
+        final NearCacheSessionRepository.CachedSession<MapSession> session = repository.findById(stored.getId());
+        repository.save(session);
+        repository.deleteById(stored.getId());
+        repository.flush();
+
+        verify(delegate).deleteById(stored.getId());
+        verify(delegate, never()).save(any(MapSession.class));
+        assertThat(repository.findById(stored.getId())).isNull();
+    }
+
+    @Test
+    @DisplayName("should announce re-keyed and deleted sessions but not new or written back ones")
+    void publishesChanges() {
+        when(delegate.createSession()).thenReturn(new MapSession());
+        final MapSession stored = new MapSession();
+        final String oldId = stored.getId();
+        when(delegate.findById(oldId)).thenReturn(stored);
+
+        repository.save(repository.createSession());
+        final NearCacheSessionRepository.CachedSession<MapSession> session = repository.findById(oldId);
+        final String newId = session.changeSessionId();
+        repository.save(session);
+        session.setAttribute("seen", true);
+        repository.save(session);
+        repository.flush();
+        repository.deleteById(newId);
+
+        assertThat(published).containsExactly(oldId, newId);
+    }
+
+    @Test
+    @DisplayName("should reload a session changed on another node and drop its unwritten local change")
+    void invalidate() {
+        final MapSession stored = new MapSession();
+        final MapSession changedElsewhere = new MapSession(stored);
+        when(delegate.findById(stored.getId())).thenReturn(stored).thenReturn(changedElsewhere);
+
+        final NearCacheSessionRepository.CachedSession<MapSession> session = repository.findById(stored.getId());
+        session.setAttribute("local", true);
+        repository.save(session);
+        repository.invalidate(List.of(stored.getId()));
+        repository.flush();
+
+        verify(delegate, never()).save(any(MapSession.class));
+        assertThat(repository.findById(stored.getId())).isNotSameAs(session);
+        verify(delegate, times(2)).findById(stored.getId());
+    }
+}
@@ -0,0 +1,107 @@
+package com.helmes.sector.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import com.helmes.sector.repository.PostgresNotificationListener;
+import com.helmes.sector.support.EmbeddedDatabase;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Runs two channels against one database, as two nodes would, and checks that each drops the sessions the
+ * other one announces.
+ */
+@DisplayName("SessionChangeChannel integration tests")
+class SessionChangeChannelTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final NearCacheSessionRepository<?> firstCache = mock(NearCacheSessionRepository.class);
+    private final NearCacheSessionRepository<?> secondCache = mock(NearCacheSessionRepository.class);
+    private DriverManagerDataSource dataSource;
+    private PostgresNotificationListener firstListener;
+    private PostgresNotificationListener secondListener;
+    private SessionChangeChannel first;
+    private SessionChangeChannel second;
+
+    @BeforeEach
+    void setUp() {
+        final Map<String, Object> properties = EmbeddedDatabase.datasourceProperties("session_channel");
+        final DataSourceProperties dataSourceProperties = new DataSourceProperties();
+        dataSourceProperties.setUrl((String) properties.get("spring.datasource.url"));
+        dataSourceProperties.setUsername((String) properties.get("spring.datasource.username"));
+        dataSourceProperties.setPassword((String) properties.get("spring.datasource.password"));
+        dataSource = new DriverManagerDataSource(
+            dataSourceProperties.getUrl(), dataSourceProperties.getUsername(), dataSourceProperties.getPassword());
+
+        final PostgresNotificationListener.Settings settings =
+            new PostgresNotificationListener.Settings(Duration.ofMillis(200), Duration.ofMillis(500));
+        firstListener = new PostgresNotificationListener(dataSourceProperties, settings);
+        secondListener = new PostgresNotificationListener(dataSourceProperties, settings);
+        first = new SessionChangeChannel(dataSource, firstListener);
+        second = new SessionChangeChannel(dataSource, secondListener);
+        first.start(firstCache);
+        second.start(secondCache);
+        firstListener.start();
+        secondListener.start();
+        await(first::isListening);
+        await(second::isListening);
+    }
+
+    @AfterEach
+    void tearDown() {
+        firstListener.stop();
+        secondListener.stop();
+    }
+
+    @Test
+    @DisplayName("should drop sessions changed on another node but not those changed locally")
+    void invalidatesRemoteChanges() {
+        first.publish(List.of("a", "b"));
+
+        verify(secondCache, timeout(TIMEOUT.toMillis())).invalidate(List.of("a", "b"));
+        verify(firstCache, never()).invalidate(anyCollection());
+    }
+
+    @Test
+    @DisplayName("should drop the whole near cache after reconnecting, as changes may have been missed")
+    void invalidatesAllAfterReconnect() {
+        verify(secondCache, timeout(TIMEOUT.toMillis())).invalidateAll();
+
+        new JdbcTemplate(dataSource).queryForList(
+            "SELECT pg_terminate_backend(pid) FROM pg_stat_activity"
+                + " WHERE datname = current_database() AND application_name = ?",
+            PostgresNotificationListener.APPLICATION_NAME
+        );
+
+        verify(secondCache, timeout(TIMEOUT.toMillis()).times(2)).invalidateAll();
+        await(second::isListening);
+    }
+
+    private static void await(final BooleanSupplier condition) {
+        final long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %s", TIMEOUT).isLessThan(deadline);
+            try {
+                Thread.sleep(50);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.helmes.sector.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+/**
+ * A throwaway PostgreSQL server started from the embedded binaries, shared by all tests in a run that need one.
+ */
+public final class EmbeddedDatabase {
+
+    private static final String DEFAULT_DATABASE = "postgres";
+
+    private static EmbeddedPostgres postgres;
+
+    private EmbeddedDatabase() {
+    }
+
+    public static Map<String, Object> datasourceProperties() {
+        return datasourceProperties(DEFAULT_DATABASE);
+    }
+
+    /**
+     * Points the application at {@code database} on the shared server, creating it first if needed, so a
+     * test can keep its data apart from the others.
+     */
+    public static synchronized Map<String, Object> datasourceProperties(final String database) {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.builder()
+                    .setServerConfig("max_connections", "300")
+                    .start();
+            } catch (final IOException ex) {
+                throw new UncheckedIOException("Failed to start embedded PostgreSQL", ex);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(EmbeddedDatabase::close));
+        }
+        if (!DEFAULT_DATABASE.equals(database)) {
+            createIfMissing(database);
+        }
+        return Map.of(
+            "spring.datasource.url", postgres.getJdbcUrl("postgres", database),
+            "spring.datasource.username", "postgres",
+            "spring.datasource.password", "postgres"
+        );
+    }
+
+    private static void createIfMissing(final String database) {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             PreparedStatement exists = connection.prepareStatement("SELECT 1 FROM pg_database WHERE datname = ?")) {
+            exists.setString(1, database);
+            try (ResultSet result = exists.executeQuery()) {
+                if (result.next()) {
+                    return;
+                }
+            }
+            try (Statement create = connection.createStatement()) {
+                create.execute("CREATE DATABASE \"" + database + "\"");
+            }
+        } catch (final SQLException ex) {
+            throw new IllegalStateException("Failed to create database " + database, ex);
+        }
+    }
+
+    private static void close() {
+        try {
+            postgres.close();
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
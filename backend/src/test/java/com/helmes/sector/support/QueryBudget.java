@@ -0,0 +1,45 @@
+package com.helmes.sector.support;
+
+import com.helmes.sector.monitoring.StatementCounter;
+import java.util.concurrent.Callable;
+
+/**
+ * Fails a test when a piece of code runs more SQL statements than it is allowed to, so N+1 queries are
+ * caught before they ship:
+ *
+ * <pre>{@code
+ * QueryBudget.assertAtMost(2, () -> mockMvc.perform(get("/api/v1/user-selections/me").cookie(session)))
+ *     .andExpect(status().isOk());
+ * }</pre>
+ *
+ * <p>Statements are counted on the calling thread by {@link StatementCounter}, so the code under test has to
+ * run synchronously on it, as {@code MockMvc} requests do.
+ */
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    /**
+     * Runs {@code action} and returns its result, or fails if it ran more than {@code maxStatements} statements.
+     */
+    public static <T> T assertAtMost(final int maxStatements, final Callable<T> action) throws Exception {
+        final long before = StatementCounter.current();
+        final T result = action.call();
+        final long statements = StatementCounter.current() - before;
+        if (statements > maxStatements) {
+            throw new AssertionError("Expected at most " + maxStatements + " SQL statements but " + statements
+                + " were executed. Enable DEBUG logging for org.hibernate.SQL to see them.");
+        }
+        return result;
+    }
+
+    /**
+     * Runs {@code action} and returns how many statements it ran.
+     */
+    public static long count(final Callable<?> action) throws Exception {
+        final long before = StatementCounter.current();
+        action.call();
+        return StatementCounter.current() - before;
+    }
+}
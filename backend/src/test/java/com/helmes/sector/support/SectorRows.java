@@ -0,0 +1,28 @@
+package com.helmes.sector.support;
+
+import com.helmes.sector.repository.SectorRow;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link SectorRow} fixtures, as the hierarchy query would return them.
+ */
+public final class SectorRows {
+
+    private SectorRows() {
+    }
+
+    public static SectorRow row(final long id, final String name, final Long parentId, final int depth) {
+        return new Row(id, name, parentId, depth);
+    }
+
+    /**
+     * Root sectors named "Test Sector", one per id.
+     */
+    public static List<SectorRow> roots(final long... ids) {
+        return Arrays.stream(ids).mapToObj(id -> row(id, "Test Sector", null, 0)).toList();
+    }
+
+    private record Row(Long getId, String getName, Long getParentId, Integer getDepth) implements SectorRow {
+    }
+}
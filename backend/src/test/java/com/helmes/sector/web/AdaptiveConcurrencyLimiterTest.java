@@ -0,0 +1,142 @@
+package com.helmes.sector.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.helmes.sector.web.AdaptiveConcurrencyLimiter.Admission;
+import com.helmes.sector.web.AdaptiveConcurrencyLimiter.Settings;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("AdaptiveConcurrencyLimiter unit tests")
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    @Nested
+    @DisplayName("acquire")
+    class Acquire {
+
+        @Test
+        @DisplayName("should admit up to the limit and reject when the queue is full")
+        void queueFull() {
+            final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                new Settings(2, 1, 2, 0, Duration.ofSeconds(1)));
+
+            assertThat(limiter.acquire()).isEqualTo(Admission.ADMITTED);
+            assertThat(limiter.acquire()).isEqualTo(Admission.ADMITTED);
+            assertThat(limiter.acquire()).isEqualTo(Admission.QUEUE_FULL);
+            assertThat(limiter.getInFlight()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("should admit a queued request once a slot is released")
+        void queuedUntilReleased() throws Exception {
+            final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                new Settings(1, 1, 1, 1, Duration.ofSeconds(10)));
+            limiter.acquire();
+
+            final CompletableFuture<Admission> queued = CompletableFuture.supplyAsync(limiter::acquire);
+            while (limiter.getQueued() == 0) {
+                Thread.onSpinWait();
+            }
+            limiter.release(MILLIS);
+
+            assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo(Admission.ADMITTED);
+            assertThat(limiter.getQueued()).isZero();
+            assertThat(limiter.getInFlight()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should give up after the maximum wait")
+        void timesOut() {
+            final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                new Settings(1, 1, 1, 1, Duration.ofMillis(20)));
+            limiter.acquire();
+
+            assertThat(limiter.acquire()).isEqualTo(Admission.TIMED_OUT);
+            assertThat(limiter.getQueued()).isZero();
+            assertThat(limiter.getInFlight()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("limit")
+    class Limit {
+
+        @Test
+        @DisplayName("should grow while latency stays at the baseline")
+        void growsAtBaseline() {
+            final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                new Settings(10, 2, 100, 0, Duration.ZERO));
+
+            runSaturated(limiter, 50, 5 * MILLIS);
+
+            assertThat(limiter.getLimit()).isGreaterThan(20);
+        }
+
+        @Test
+        @DisplayName("should shrink when latency rises above the baseline, down to the minimum")
+        void shrinksOnLatency() {
+            final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                new Settings(50, 5, 100, 0, Duration.ZERO));
+            runSaturated(limiter, 20, 5 * MILLIS);
+            final int before = limiter.getLimit();
+
+            runSaturated(limiter, 10, 50 * MILLIS);
+            assertThat(limiter.getLimit()).isLessThan(before);
+
+            runSaturated(limiter, 5, 500 * MILLIS);
+            assertThat(limiter.getLimit()).isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("should not grow while less than half of the limit is used")
+        void stableWhenUnderused() {
+            final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                new Settings(10, 2, 100, 0, Duration.ZERO));
+
+            for (int i = 0; i < 100; i++) {
+                limiter.acquire();
+                limiter.release(5 * MILLIS);
+            }
+
+            assertThat(limiter.getLimit()).isEqualTo(10);
+        }
+
+        @Test
+        @DisplayName("should lower every limit above the cap and keep the queue settings")
+        void cappedAt() {
+            assertThat(new Settings(50, 20, 200, 20, Duration.ofMillis(50)).cappedAt(10))
+                .isEqualTo(new Settings(10, 10, 10, 20, Duration.ofMillis(50)));
+            assertThat(new Settings(5, 2, 8, 0, Duration.ZERO).cappedAt(10))
+                .isEqualTo(new Settings(5, 2, 8, 0, Duration.ZERO));
+        }
+
+        @Test
+        @DisplayName("should reject inconsistent bounds")
+        void invalidSettings() {
+            assertThatThrownBy(() -> new Settings(1, 2, 10, 0, Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        /**
+         * Completes {@code rounds} batches of requests that each fill the current limit.
+         */
+        private static void runSaturated(final AdaptiveConcurrencyLimiter limiter, final int rounds, final long nanos) {
+            for (int round = 0; round < rounds; round++) {
+                int admitted = 0;
+                while (limiter.acquire() == Admission.ADMITTED) {
+                    admitted++;
+                }
+                for (int i = 0; i < admitted; i++) {
+                    limiter.release(nanos);
+                }
+            }
+        }
+    }
+}
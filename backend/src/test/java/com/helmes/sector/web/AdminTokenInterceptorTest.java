@@ -0,0 +1,56 @@
+package com.helmes.sector.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import com.helmes.sector.exception.AdminAccessDeniedException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+@DisplayName("AdminTokenInterceptor unit tests")
+class AdminTokenInterceptorTest {
+
+    private final HandlerMethod handler = mock(HandlerMethod.class);
+
+    @Test
+    @DisplayName("should admit a request carrying the configured token")
+    void admitsValidToken() {
+        assertThat(new AdminTokenInterceptor("secret").preHandle(request("Bearer secret"), new MockHttpServletResponse(), handler))
+            .isTrue();
+    }
+
+    @Test
+    @DisplayName("should reject a missing or wrong token with 401")
+    void rejectsWrongToken() {
+        final AdminTokenInterceptor interceptor = new AdminTokenInterceptor("secret");
+
+        assertThatThrownBy(() -> interceptor.preHandle(request(null), new MockHttpServletResponse(), handler))
+            .isInstanceOfSatisfying(AdminAccessDeniedException.class,
+                ex -> assertThat(ex.getStatus()).isEqualTo(HttpStatus.UNAUTHORIZED));
+        assertThatThrownBy(() -> interceptor.preHandle(request("Bearer secrets"), new MockHttpServletResponse(), handler))
+            .isInstanceOf(AdminAccessDeniedException.class);
+    }
+
+    @Test
+    @DisplayName("should reject everyone with 403 while no token is configured")
+    void closedWithoutToken() {
+        assertThatThrownBy(() -> new AdminTokenInterceptor("").preHandle(
+                request("Bearer "), new MockHttpServletResponse(), handler))
+            .isInstanceOfSatisfying(AdminAccessDeniedException.class,
+                ex -> assertThat(ex.getStatus()).isEqualTo(HttpStatus.FORBIDDEN));
+    }
+
+    private static MockHttpServletRequest request(final String authorization) {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/user-selections/export");
+        if (authorization != null) {
+            request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        return request;
+    }
+}
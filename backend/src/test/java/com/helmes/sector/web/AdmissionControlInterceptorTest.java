@@ -0,0 +1,131 @@
+package com.helmes.sector.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.helmes.sector.controller.UserSelectionController;
+import com.helmes.sector.dto.UserSelectionResponse;
+import com.helmes.sector.exception.GlobalExceptionHandler;
+import com.helmes.sector.service.UserSelectionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AdmissionControlInterceptor tests")
+class AdmissionControlInterceptorTest {
+
+    private static final String BODY = "{\"name\":\"John\",\"sectorIds\":[1],\"agreeToTerms\":true}";
+    private static final String WRITE_ENDPOINT = "PUT /api/v1/user-selections/me";
+
+    @Mock
+    private UserSelectionService userSelectionService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        final AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor(
+            new AdaptiveConcurrencyLimiter.Settings(10, 10, 10, 0, Duration.ZERO),
+            new AdaptiveConcurrencyLimiter.Settings(1, 1, 1, 0, Duration.ZERO),
+            Duration.ofSeconds(2),
+            meterRegistry
+        );
+        mockMvc = MockMvcBuilders.standaloneSetup(new UserSelectionController(userSelectionService, Optional.empty()))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .addMappedInterceptors(new String[] {"/api/v1/user-selections", "/api/v1/user-selections/me"}, interceptor)
+            .build();
+    }
+
+    @Test
+    @DisplayName("should shed writes over the limit with 429 and Retry-After while reads keep flowing")
+    void shedsWrites() throws Exception {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch finish = new CountDownLatch(1);
+        when(userSelectionService.upsert(any(), any())).thenAnswer(invocation -> {
+            entered.countDown();
+            finish.await(10, TimeUnit.SECONDS);
+            return UserSelectionResponse.builder().id(1L).build();
+        });
+        when(userSelectionService.findBySessionId(any())).thenReturn(Optional.empty());
+
+        final CompletableFuture<Integer> first = CompletableFuture.supplyAsync(this::putStatus);
+        assertThat(entered.await(10, TimeUnit.SECONDS)).isTrue();
+
+        mockMvc.perform(put("/api/v1/user-selections/me").session(new MockHttpSession())
+                .contentType(MediaType.APPLICATION_JSON).content(BODY))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().string("Retry-After", "2"))
+            .andExpect(jsonPath("$.title").value("Too Many Requests"));
+        mockMvc.perform(get("/api/v1/user-selections/me").session(new MockHttpSession()))
+            .andExpect(status().isNoContent());
+
+        finish.countDown();
+        assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo(200);
+        assertThat(putStatus()).isEqualTo(200);
+
+        assertThat(meterRegistry.get("app.admission.rejections")
+            .tags("endpoint", WRITE_ENDPOINT, "budget", "write", "reason", "queue-full")
+            .counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("app.admission.in-flight").tag("endpoint", "*").gauge().value())
+            .isZero();
+        assertThat(meterRegistry.get("app.admission.limit").tag("endpoint", "GET /api/v1/user-selections/me")
+            .tag("budget", "read").gauge().value()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("should count writes to every endpoint against one shared budget")
+    void sharesWriteBudget() throws Exception {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch finish = new CountDownLatch(1);
+        when(userSelectionService.upsert(any(), any())).thenAnswer(invocation -> {
+            entered.countDown();
+            finish.await(10, TimeUnit.SECONDS);
+            return UserSelectionResponse.builder().id(1L).build();
+        });
+
+        final CompletableFuture<Integer> first = CompletableFuture.supplyAsync(this::putStatus);
+        assertThat(entered.await(10, TimeUnit.SECONDS)).isTrue();
+
+        mockMvc.perform(post("/api/v1/user-selections").session(new MockHttpSession())
+                .contentType(MediaType.APPLICATION_JSON).content(BODY))
+            .andExpect(status().isTooManyRequests());
+
+        finish.countDown();
+        assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo(200);
+        assertThat(meterRegistry.get("app.admission.rejections")
+            .tags("endpoint", "POST /api/v1/user-selections", "budget", "write", "reason", "queue-full")
+            .counter().count()).isEqualTo(1);
+    }
+
+    private int putStatus() {
+        try {
+            return mockMvc.perform(put("/api/v1/user-selections/me").session(new MockHttpSession())
+                    .contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andReturn().getResponse().getStatus();
+        } catch (final Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.helmes.sector.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("EncodedBody unit tests")
+class EncodedBodyTest {
+
+    private static final EncodedBody BODY = EncodedBody.of("[]".repeat(500).getBytes(StandardCharsets.UTF_8));
+
+    @Test
+    @DisplayName("should serve gzip when it is listed with a non-zero quality")
+    void listedCoding() {
+        assertThat(BODY.prefersGzip("gzip, deflate")).isTrue();
+        assertThat(BODY.prefersGzip("gzip; q=0.5")).isTrue();
+        assertThat(BODY.prefersGzip("gzip;q=0")).isFalse();
+        assertThat(BODY.prefersGzip("deflate")).isFalse();
+    }
+
+    @Test
+    @DisplayName("should let an explicit coding take precedence over the wildcard")
+    void explicitOverWildcard() {
+        assertThat(BODY.prefersGzip("*;q=0, gzip")).isTrue();
+        assertThat(BODY.prefersGzip("gzip;q=0, *")).isFalse();
+    }
+
+    @Test
+    @DisplayName("should fall back to the wildcard when gzip is not listed")
+    void wildcard() {
+        assertThat(BODY.prefersGzip("*")).isTrue();
+        assertThat(BODY.prefersGzip("identity, *;q=0.1")).isTrue();
+        assertThat(BODY.prefersGzip("*;q=0")).isFalse();
+    }
+}
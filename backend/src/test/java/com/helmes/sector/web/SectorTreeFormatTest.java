@@ -0,0 +1,38 @@
+package com.helmes.sector.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("SectorTreeFormat unit tests")
+class SectorTreeFormatTest {
+
+    @Test
+    @DisplayName("should pick the format with the highest quality")
+    void highestQuality() {
+        assertThat(SectorTreeFormat.negotiate(SectorTreeFormat.FLAT_CBOR_VALUE + ", application/json;q=0.5"))
+            .isEqualTo(SectorTreeFormat.FLAT_CBOR);
+        assertThat(SectorTreeFormat.negotiate("application/json;q=0.9, " + SectorTreeFormat.FLAT_JSON_VALUE))
+            .isEqualTo(SectorTreeFormat.FLAT_JSON);
+    }
+
+    @Test
+    @DisplayName("should let a more specific range override a wildcard of the same or higher quality")
+    void specificOverWildcard() {
+        assertThat(SectorTreeFormat.negotiate("*/*, application/json;q=0")).isEqualTo(SectorTreeFormat.FLAT_JSON);
+        assertThat(SectorTreeFormat.negotiate("application/*;q=0.5, " + SectorTreeFormat.FLAT_CBOR_VALUE + ";q=0.5"))
+            .isEqualTo(SectorTreeFormat.NESTED_JSON);
+        assertThat(SectorTreeFormat.negotiate("application/*;q=0.2, application/json;q=0.1"))
+            .isEqualTo(SectorTreeFormat.FLAT_JSON);
+    }
+
+    @Test
+    @DisplayName("should fall back to nested JSON for wildcards, a missing or a malformed header")
+    void defaults() {
+        assertThat(SectorTreeFormat.negotiate("*/*")).isEqualTo(SectorTreeFormat.NESTED_JSON);
+        assertThat(SectorTreeFormat.negotiate(null)).isEqualTo(SectorTreeFormat.NESTED_JSON);
+        assertThat(SectorTreeFormat.negotiate("not a media type")).isEqualTo(SectorTreeFormat.NESTED_JSON);
+        assertThat(SectorTreeFormat.negotiate("text/html")).isEqualTo(SectorTreeFormat.NESTED_JSON);
+    }
+}
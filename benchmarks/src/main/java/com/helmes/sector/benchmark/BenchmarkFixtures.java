@@ -0,0 +1,173 @@
+package com.helmes.sector.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helmes.sector.repository.SectorRow;
+import com.helmes.sector.repository.UserSelectionRow;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Deterministic inputs shared by the benchmark suites.
+ */
+public final class BenchmarkFixtures {
+
+    /**
+     * Children per sector in synthetic taxonomies. Like the seeded taxonomy they have 3 roots; larger
+     * sizes add levels at this fan-out.
+     */
+    private static final int FAN_OUT = 8;
+    private static final int ROOTS = 3;
+
+    private static final String[] WORDS = {
+        "Manufacturing", "Food", "Beverage", "Metalworking", "Furniture", "Printing", "Plastic", "Textile",
+        "Wood", "Electronics", "Machinery", "Logistics", "Engineering", "Translation", "Construction", "Bakery",
+    };
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Mirrors the {@code ObjectMapper} Spring Boot configures for the application with default settings.
+     */
+    public static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    /**
+     * A complete taxonomy of {@code size} sectors with ids {@code 1..size}, in the pre-order
+     * {@code SectorRepository.findHierarchy()} returns.
+     */
+    public static List<SectorRow> sectorRows(final int size) {
+        final List<List<Integer>> children = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            children.add(new ArrayList<>());
+            if (i >= ROOTS) {
+                children.get((i - ROOTS) / FAN_OUT).add(i);
+            }
+        }
+
+        final List<SectorRow> rows = new ArrayList<>(size);
+        final Deque<Row> stack = new ArrayDeque<>();
+        for (int i = Math.min(ROOTS, size) - 1; i >= 0; i--) {
+            stack.push(new Row(i + 1L, nameOf(i), null, 0));
+        }
+        while (!stack.isEmpty()) {
+            final Row row = stack.pop();
+            rows.add(row);
+            for (final Integer child : children.get((int) (row.id - 1)).reversed()) {
+                final long id = child + 1L;
+                stack.push(new Row(id, nameOf(child), row.id, row.depth + 1));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * The row {@code GET /user-selections/me} reads for a selection holding {@code sectorCount} sectors spread
+     * over a taxonomy of {@code taxonomySize}.
+     */
+    public static UserSelectionRow selectionRow(final int sectorCount, final int taxonomySize) {
+        return new SelectionRow(1L, "Benchmark User", true, CREATED_AT, CREATED_AT,
+            sectorIds(sectorCount, taxonomySize).toArray(Long[]::new));
+    }
+
+    /**
+     * A {@code PUT /user-selections/me} body selecting {@code sectorCount} sectors spread over a taxonomy of
+     * {@code taxonomySize}.
+     */
+    public static byte[] selectionRequestJson(final int sectorCount, final int taxonomySize) {
+        final StringJoiner ids = new StringJoiner(",", "[", "]");
+        sectorIds(sectorCount, taxonomySize).forEach(id -> ids.add(id.toString()));
+        return ("{\"name\":\"Benchmark User\",\"sectorIds\":" + ids + ",\"agreeToTerms\":true}")
+            .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * {@code count} distinct sector ids spread evenly over {@code 1..taxonomySize}.
+     */
+    public static Set<Long> sectorIds(final int count, final int taxonomySize) {
+        final Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(1L + (long) i * taxonomySize / count);
+        }
+        return ids;
+    }
+
+    private static String nameOf(final int index) {
+        return WORDS[index % WORDS.length] + " and " + WORDS[(index / WORDS.length + 3) % WORDS.length].toLowerCase()
+            + " " + (index + 1);
+    }
+
+    private record SelectionRow(
+        Long id,
+        String name,
+        boolean agreeToTerms,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long[] sectorIds
+    ) implements UserSelectionRow {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean isAgreeToTerms() {
+            return agreeToTerms;
+        }
+
+        @Override
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        @Override
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+
+        @Override
+        public Long[] getSectorIds() {
+            return sectorIds;
+        }
+    }
+
+    private record Row(Long id, String name, Long parentId, Integer depth) implements SectorRow {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Long getParentId() {
+            return parentId;
+        }
+
+        @Override
+        public Integer getDepth() {
+            return depth;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.helmes.sector.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.helmes.sector.benchmark.BenchmarkFixtures;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reading a {@code PUT /user-selections/me} body into a {@link UserSelectionRequest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserSelectionRequestBenchmark {
+
+    /**
+     * Seeded sector ids run up to 581, so most of them are outside the range of cached {@code Long}s.
+     */
+    private static final int ID_RANGE = 600;
+
+    @Param({"1", "10", "50"})
+    public int sectorCount;
+
+    private ObjectReader reader;
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        final ObjectMapper objectMapper = BenchmarkFixtures.objectMapper();
+        reader = objectMapper.readerFor(UserSelectionRequest.class);
+        body = BenchmarkFixtures.selectionRequestJson(sectorCount, ID_RANGE);
+    }
+
+    @Benchmark
+    public UserSelectionRequest deserialize() throws IOException {
+        return reader.readValue(body);
+    }
+}
@@ -0,0 +1,73 @@
+package com.helmes.sector.service;
+
+import com.helmes.sector.benchmark.BenchmarkFixtures;
+import com.helmes.sector.repository.SectorRow;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Building the in-memory taxonomy from hierarchy rows, and the sector-id checks every write runs against it.
+ *
+ * <p>{@link #build()} covers everything {@code SectorService.reload()} does after the query: mapping rows to
+ * {@code SectorNode}s, the id lookups and the search index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SectorTaxonomyBenchmark {
+
+    private static final int SELECTED_SECTORS = 10;
+
+    @Param({"80", "1000", "10000"})
+    public int size;
+
+    private List<SectorRow> rows;
+    private SectorTaxonomy taxonomy;
+    private Set<Long> knownIds;
+    private Set<Long> withUnknownId;
+
+    @Setup
+    public void setUp() {
+        rows = BenchmarkFixtures.sectorRows(size);
+        taxonomy = SectorTaxonomy.of(rows);
+        knownIds = BenchmarkFixtures.sectorIds(SELECTED_SECTORS, size);
+        withUnknownId = new HashSet<>(knownIds);
+        withUnknownId.add(size + 1L);
+    }
+
+    @Benchmark
+    public SectorTaxonomy build() {
+        return SectorTaxonomy.of(rows);
+    }
+
+    @Benchmark
+    public boolean validateKnownIds() {
+        return taxonomy.containsAll(knownIds);
+    }
+
+    @Benchmark
+    public boolean validateWithUnknownId() {
+        return taxonomy.containsAll(withUnknownId);
+    }
+
+    @Benchmark
+    public Set<Long> withAncestors() {
+        return taxonomy.withAncestors(knownIds);
+    }
+}
@@ -0,0 +1,66 @@
+package com.helmes.sector.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helmes.sector.benchmark.BenchmarkFixtures;
+import com.helmes.sector.dto.UserSelectionResponse;
+import com.helmes.sector.repository.UserSelectionRow;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The {@code GET /user-selections/me} body: mapping the selection row to a {@link UserSelectionResponse} and
+ * writing it as JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserSelectionResponseBenchmark {
+
+    /**
+     * Seeded sector ids run up to 581, so most of them are outside the range of cached {@code Long}s.
+     */
+    private static final int ID_RANGE = 600;
+
+    @Param({"1", "10", "50"})
+    public int sectorCount;
+
+    private ObjectMapper objectMapper;
+    private UserSelectionRow row;
+    private UserSelectionResponse response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = BenchmarkFixtures.objectMapper();
+        row = BenchmarkFixtures.selectionRow(sectorCount, ID_RANGE);
+        response = UserSelectionService.toResponse(row);
+    }
+
+    @Benchmark
+    public UserSelectionResponse map() {
+        return UserSelectionService.toResponse(row);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(UserSelectionService.toResponse(row));
+    }
+}
@@ -0,0 +1,71 @@
+package com.helmes.sector.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.helmes.sector.benchmark.BenchmarkFixtures;
+import com.helmes.sector.dto.FlatSectorTree;
+import com.helmes.sector.dto.SectorNode;
+import com.helmes.sector.service.SectorTaxonomy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encoding the sector tree in each {@link SectorTreeFormat}, which {@link SectorTreeEncoder} does once per
+ * taxonomy snapshot and format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SectorTreeBenchmark {
+
+    @Param({"80", "1000", "10000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private ObjectMapper cborMapper;
+    private List<SectorNode> tree;
+    private FlatSectorTree flatTree;
+
+    @Setup
+    public void setUp() {
+        objectMapper = BenchmarkFixtures.objectMapper();
+        cborMapper = new CBORMapper();
+        tree = SectorTaxonomy.of(BenchmarkFixtures.sectorRows(size)).roots();
+        flatTree = SectorTreeEncoder.flatten(tree);
+    }
+
+    @Benchmark
+    public byte[] nestedJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(tree);
+    }
+
+    @Benchmark
+    public FlatSectorTree flatten() {
+        return SectorTreeEncoder.flatten(tree);
+    }
+
+    @Benchmark
+    public byte[] flatJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(flatTree);
+    }
+
+    @Benchmark
+    public byte[] flatCbor() throws JsonProcessingException {
+        return cborMapper.writeValueAsBytes(flatTree);
+    }
+}
@@ -0,0 +1,96 @@
+#!/usr/bin/env bash
+# Measures cold start of the backend in each startup mode: the time from launching the process until the
+# first successful GET /api/v1/sectors, and the resident set size at that moment.
+#
+# Modes:
+#   standard  java -jar on the jar as built
+#   aot       the same jar with -Dspring.aot.enabled=true
+#   aot-cds   the extracted jar with AOT and a CDS archive from a training run
+#   native    the GraalVM binary, only if backend/target/sector-selection exists (./mvnw -Pnative native:compile)
+#
+# Build the jar with AOT first (cd backend && ./mvnw package -DskipTests -Pfast-startup). The script
+# extracts it and creates the CDS archive itself. Every mode runs against the database configured for the
+# application; point it elsewhere with SPRING_DATASOURCE_URL, _USERNAME and _PASSWORD as usual.
+#
+# Usage: benchmarks/startup-benchmark.sh [runs per mode, default 5]
+# Results are printed as medians and written to benchmarks/target/startup.json.
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-8090}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+JAR=$(ls "$ROOT"/backend/target/sector-selection-*.jar | grep -v -- '-plain' | head -1)
+NATIVE="$ROOT/backend/target/sector-selection"
+WORK="$ROOT/benchmarks/target/startup"
+EXTRACTED="$WORK/extracted"
+ARCHIVE="$EXTRACTED/application.jsa"
+
+mkdir -p "$WORK"
+rm -rf "$EXTRACTED"
+java -Djarmode=tools -jar "$JAR" extract --destination "$EXTRACTED" >/dev/null
+EXTRACTED_JAR="$EXTRACTED/$(basename "$JAR")"
+
+echo "Training run for the CDS archive"
+java -XX:ArchiveClassesAtExit="$ARCHIVE" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+    -jar "$EXTRACTED_JAR" --server.port="$PORT" >"$WORK/training.log" 2>&1
+
+command_for() {
+    case "$1" in
+        standard) echo "java -jar $JAR" ;;
+        aot) echo "java -Dspring.aot.enabled=true -jar $JAR" ;;
+        aot-cds) echo "java -XX:SharedArchiveFile=$ARCHIVE -Dspring.aot.enabled=true -jar $EXTRACTED_JAR" ;;
+        native) echo "$NATIVE" ;;
+    esac
+}
+
+now_millis() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# Prints "<millis to first request> <rss in KiB>" for one cold start.
+measure() {
+    local log="$WORK/$1-$2.log"
+    local started
+    started=$(now_millis)
+    $(command_for "$1") --server.port="$PORT" >"$log" 2>&1 &
+    local pid=$!
+    until curl -sf -o /dev/null "http://localhost:$PORT/api/v1/sectors"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "$1 exited before serving a request, see $log" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    local ready
+    ready=$(now_millis)
+    local rss
+    rss=$(ps -o rss= -p "$pid" | tr -d ' ')
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$((ready - started)) $rss"
+}
+
+median() {
+    sort -n | awk '{ values[NR] = $1 } END { print (NR % 2) ? values[(NR + 1) / 2] : int((values[NR / 2] + values[NR / 2 + 1]) / 2) }'
+}
+
+MODES=(standard aot aot-cds)
+if [[ -x "$NATIVE" ]]; then
+    MODES+=(native)
+fi
+
+printf '%-10s %18s %12s\n' mode "first request ms" "RSS MiB"
+json="{\"runs\": $RUNS, \"modes\": {"
+separator=""
+for mode in "${MODES[@]}"; do
+    samples=()
+    for run in $(seq "$RUNS"); do
+        samples+=("$(measure "$mode" "$run")")
+    done
+    millis=$(printf '%s\n' "${samples[@]}" | cut -d' ' -f1 | median)
+    rss=$(printf '%s\n' "${samples[@]}" | cut -d' ' -f2 | median)
+    printf '%-10s %18d %12d\n' "$mode" "$millis" "$((rss / 1024))"
+    json+="$separator\"$mode\": {\"firstRequestMillis\": $millis, \"rssKiB\": $rss}"
+    separator=", "
+done
+echo "$json}}" >"$ROOT/benchmarks/target/startup.json"